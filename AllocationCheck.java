@@ -0,0 +1,43 @@
+package io.nom.jbnu;
+
+import java.lang.management.ManagementFactory;
+
+public class AllocationCheck {
+
+    private static final String LEVELS_PATH = "assets/" + LevelLoader.CAMPAIGN;
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURE_TICKS = 20_000;
+
+    public static long measure(LevelData levels, long seed, boolean endless) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GameWorld world = new GameWorld(seed, levels, endless);
+        Pilot pilot = new Pilot.Lookahead(60f, 40f, seed ^ 0x5DEECE66DL);
+        run(world, pilot, WARMUP_TICKS);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        run(world, pilot, MEASURE_TICKS);
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static void run(GameWorld world, Pilot pilot, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (world.isGameOver() || world.isLevelCleared()) world.reset();
+            if (pilot.wantsJump(world, GameWorld.STEP)) world.runner.jump();
+            world.step(GameWorld.STEP);
+        }
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        LevelData levels = LevelLoader.loadFile(args.length > 1 ? args[1] : LEVELS_PATH);
+        // first call loads and initialises classes on this thread
+        measure(levels, seed, false);
+        boolean failed = false;
+        for (boolean endless : new boolean[]{false, true}) {
+            long bytes = measure(levels, seed, endless);
+            System.out.printf("endless=%b ticks=%d allocated=%dB %s%n",
+                endless, MEASURE_TICKS, bytes, bytes == 0 ? "OK" : "FAIL");
+            failed |= bytes != 0;
+        }
+        if (failed) System.exit(1);
+    }
+}
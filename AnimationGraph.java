@@ -0,0 +1,155 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+public class AnimationGraph {
+
+    public static final String FILE = "animations.json";
+
+    private final int rate;
+    private final String[] names;
+    private final String[] regions;
+    private final int[] frameCounts;
+    private final int[][] tables;
+    private final boolean[] loops;
+    private final float[] durations;
+    private final int[] next;
+    private final int[][] transitions;
+    private final int[][] events;
+    private final ObjectIntMap<String> stateIds = new ObjectIntMap<>();
+    private final ObjectIntMap<String> signalIds = new ObjectIntMap<>();
+    private final ObjectIntMap<String> eventIds = new ObjectIntMap<>();
+
+    private AnimationGraph(JsonValue root) {
+        rate = root.getInt("rate", 120);
+        JsonValue states = root.get("states");
+        int count = states.size;
+        names = new String[count];
+        regions = new String[count];
+        frameCounts = new int[count];
+        tables = new int[count][];
+        loops = new boolean[count];
+        durations = new float[count];
+        next = new int[count];
+        transitions = new int[count][];
+        events = new int[count][];
+
+        int i = 0;
+        for (JsonValue s = states.child; s != null; s = s.next, i++) {
+            names[i] = s.getString("name");
+            stateIds.put(names[i], i);
+        }
+        Array<String> signals = new Array<>();
+        for (JsonValue s = states.child; s != null; s = s.next) {
+            JsonValue on = s.get("on");
+            if (on == null) continue;
+            for (JsonValue t = on.child; t != null; t = t.next)
+                if (!signalIds.containsKey(t.name)) {
+                    signalIds.put(t.name, signals.size);
+                    signals.add(t.name);
+                }
+        }
+
+        i = 0;
+        for (JsonValue s = states.child; s != null; s = s.next, i++) {
+            regions[i] = s.getString("region");
+            frameCounts[i] = s.getInt("frames", 1);
+            int[] sequence = s.has("sequence") ? s.get("sequence").asIntArray() : identity(frameCounts[i]);
+            float[] frameTimes = frameTimes(s, sequence.length);
+            tables[i] = table(sequence, frameTimes, rate);
+            loops[i] = s.getBoolean("loop", false);
+            durations[i] = s.getFloat("duration", 0f);
+            next[i] = durations[i] > 0f ? state(s.getString("next")) : -1;
+
+            transitions[i] = new int[signals.size];
+            Arrays.fill(transitions[i], -1);
+            JsonValue on = s.get("on");
+            if (on != null) for (JsonValue t = on.child; t != null; t = t.next)
+                transitions[i][signalIds.get(t.name, -1)] = state(t.asString());
+
+            events[i] = new int[frameCounts[i]];
+            Arrays.fill(events[i], -1);
+            JsonValue ev = s.get("events");
+            if (ev != null) for (JsonValue e = ev.child; e != null; e = e.next) {
+                if (!eventIds.containsKey(e.asString())) eventIds.put(e.asString(), eventIds.size);
+                events[i][Integer.parseInt(e.name)] = eventIds.get(e.asString(), -1);
+            }
+        }
+    }
+
+    public static AnimationGraph load(FileHandle file) {
+        return new AnimationGraph(new JsonReader().parse(file));
+    }
+
+    private static int[] identity(int frames) {
+        int[] sequence = new int[frames];
+        for (int i = 0; i < frames; i++) sequence[i] = i;
+        return sequence;
+    }
+
+    private static float[] frameTimes(JsonValue state, int frames) {
+        float[] times = new float[frames];
+        float[] given = state.has("durations") ? state.get("durations").asFloatArray() : new float[] {0f};
+        for (int i = 0; i < frames; i++) times[i] = given[Math.min(i, given.length - 1)];
+        return times;
+    }
+
+    private static int[] table(int[] sequence, float[] frameTimes, int rate) {
+        int steps = 0;
+        int[] ends = new int[sequence.length];
+        for (int i = 0; i < sequence.length; i++) {
+            steps += Math.max(1, Math.round(frameTimes[i] * rate));
+            ends[i] = steps;
+        }
+        int[] table = new int[steps];
+        for (int i = 0, f = 0; i < steps; i++) {
+            if (i >= ends[f]) f++;
+            table[i] = sequence[f];
+        }
+        return table;
+    }
+
+    public TextureRegion[][] bind(TextureAtlas atlas) {
+        TextureRegion[][] frames = new TextureRegion[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            TextureRegion sheet = atlas.findRegion(regions[i]);
+            if (sheet == null) throw new IllegalStateException("Missing atlas region: " + regions[i]);
+            TextureRegion[][] split = sheet.split(sheet.getRegionWidth() / frameCounts[i], sheet.getRegionHeight());
+            frames[i] = Arrays.copyOf(split[0], frameCounts[i]);
+        }
+        return frames;
+    }
+
+    public int frame(int state, float time) {
+        int[] table = tables[state];
+        int step = (int) (time * rate);
+        return table[loops[state] ? step % table.length : Math.min(step, table.length - 1)];
+    }
+
+    public int transition(int state, int signal) {
+        return transitions[state][signal];
+    }
+
+    public float getDuration(int state) { return durations[state]; }
+    public int getNext(int state) { return next[state]; }
+    public int getEvent(int state, int frame) { return events[state][frame]; }
+
+    public int state(String name) {
+        int id = stateIds.get(name, -1);
+        if (id < 0) throw new IllegalArgumentException("Unknown animation state: " + name);
+        return id;
+    }
+
+    public int signal(String name) { return signalIds.get(name, -1); }
+    public int event(String name) { return eventIds.get(name, -1); }
+    public String getName(int state) { return names[state]; }
+    public int getStateCount() { return names.length; }
+}
@@ -0,0 +1,63 @@
+package io.nom.jbnu;
+
+public class AnimationMachine {
+
+    public interface Listener {
+        void onAnimationEvent(AnimationMachine machine, int event);
+    }
+
+    private final AnimationGraph graph;
+    private final int initial;
+    private Listener listener;
+    private int state;
+    private float time;
+    private int frame = -1;
+
+    public AnimationMachine(AnimationGraph graph, int initial) {
+        this.graph = graph;
+        this.initial = initial;
+        this.state = initial;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void update(float delta) {
+        update(delta, -1);
+    }
+
+    public void update(float delta, int signal) {
+        if (signal >= 0) {
+            int target = graph.transition(state, signal);
+            if (target >= 0) enter(target);
+        }
+        time += delta;
+        float duration = graph.getDuration(state);
+        if (duration > 0f && time >= duration) {
+            float over = time - duration;
+            enter(graph.getNext(state));
+            time = over;
+        }
+        int f = graph.frame(state, time);
+        if (f == frame) return;
+        frame = f;
+        int event = graph.getEvent(state, f);
+        if (event >= 0 && listener != null) listener.onAnimationEvent(this, event);
+    }
+
+    public void enter(int state) {
+        this.state = state;
+        time = 0f;
+        frame = -1;
+    }
+
+    public void reset() {
+        enter(initial);
+    }
+
+    public int getState() { return state; }
+    public float getTime() { return time; }
+    public int getFrame() { return frame < 0 ? graph.frame(state, time) : frame; }
+    public AnimationGraph getGraph() { return graph; }
+}
@@ -0,0 +1,88 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Disposable;
+
+public class Assets implements Disposable {
+
+    public enum Group {
+        MENU(texture("logo.png"), texture("menu_bg.png"), music("menu.mp3")),
+        STORY(texture("runner_stand.png"), music("story.mp3")),
+        GAME(new AssetDescriptor<>(GameSprites.ATLAS, TextureAtlas.class), sound("hit.wav"), music("stage1.mp3"));
+
+        final AssetDescriptor<?>[] descriptors;
+
+        Group(AssetDescriptor<?>... descriptors) {
+            this.descriptors = descriptors;
+        }
+    }
+
+    private final AssetManager manager = new AssetManager();
+
+    private static AssetDescriptor<Texture> texture(String path) {
+        return new AssetDescriptor<>(path, Texture.class);
+    }
+
+    static AssetDescriptor<Music> music(String path) {
+        return new AssetDescriptor<>(path, Music.class);
+    }
+
+    private static AssetDescriptor<Sound> sound(String path) {
+        return new AssetDescriptor<>(path, Sound.class);
+    }
+
+    public void acquire(Group group) {
+        for (AssetDescriptor<?> d : group.descriptors) manager.load(d);
+    }
+
+    public void release(Group group) {
+        for (AssetDescriptor<?> d : group.descriptors) {
+            if (manager.contains(d.fileName)) manager.unload(d.fileName);
+        }
+    }
+
+    public void acquire(AssetDescriptor<?> descriptor) {
+        manager.load(descriptor);
+    }
+
+    public void release(AssetDescriptor<?> descriptor) {
+        if (manager.contains(descriptor.fileName)) manager.unload(descriptor.fileName);
+    }
+
+    public boolean isLoaded(AssetDescriptor<?> descriptor) {
+        return manager.isLoaded(descriptor.fileName, descriptor.type);
+    }
+
+    public <T> T get(AssetDescriptor<T> descriptor) {
+        return manager.get(descriptor);
+    }
+
+    public boolean isLoaded(Group group) {
+        for (AssetDescriptor<?> d : group.descriptors) {
+            if (!manager.isLoaded(d.fileName, d.type)) return false;
+        }
+        return true;
+    }
+
+    public boolean update() {
+        return manager.update();
+    }
+
+    public void finishLoading() {
+        manager.finishLoading();
+    }
+
+    public <T> T get(String fileName, Class<T> type) {
+        return manager.get(fileName, type);
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
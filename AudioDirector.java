@@ -0,0 +1,136 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.TimeUtils;
+
+public class AudioDirector {
+
+    private static final float MUSIC_VOLUME = 0.5f;
+    private static final float CROSSFADE_SECONDS = 1.5f;
+    private static final float PRELOAD_DISTANCE = 2000f;
+    private static final float HIT_VOLUME = 0.8f;
+    private static final int HIT_VOICES = 4;
+    private static final long HIT_MIN_INTERVAL_MS = 60;
+
+    private final Assets assets;
+    private final AssetDescriptor<Music>[] stageTracks;
+    private final boolean[] requested;
+
+    private Music current;
+    private Music fadingOut;
+    private float fade = 1f;
+    private int pendingStage = -1;
+    private boolean paused = false;
+    private float volume = 1f;
+
+    private final Sound hitSound;
+    private final long[] hitIds = new long[HIT_VOICES];
+    private int hitCursor = 0;
+    private long lastHitMillis = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AudioDirector(Assets assets, Sound hitSound, String... stageFiles) {
+        this.assets = assets;
+        this.hitSound = hitSound;
+        this.stageTracks = new AssetDescriptor[stageFiles.length];
+        this.requested = new boolean[stageFiles.length];
+        for (int i = 0; i < stageFiles.length; i++) stageTracks[i] = Assets.music(stageFiles[i]);
+        for (int i = 0; i < HIT_VOICES; i++) hitIds[i] = -1;
+    }
+
+    public void setVolume(float volume) {
+        this.volume = volume;
+        if (current != null) current.setVolume(MUSIC_VOLUME * volume * fade);
+    }
+
+    public void preload(int level) {
+        int i = level - 1;
+        if (i < 0 || i >= stageTracks.length || requested[i]) return;
+        requested[i] = true;
+        assets.acquire(stageTracks[i]);
+    }
+
+    public void playStage(int level, boolean crossfade) {
+        preload(level);
+        if (!crossfade) {
+            stopAll();
+            fade = 1f;
+        }
+        pendingStage = level;
+        startPending();
+    }
+
+    private void startPending() {
+        AssetDescriptor<Music> track = stageTracks[pendingStage - 1];
+        if (!assets.isLoaded(track)) return;
+        Music next = assets.get(track);
+        pendingStage = -1;
+        if (next == current) return;
+        if (fadingOut != null) fadingOut.stop();
+        fadingOut = current;
+        current = next;
+        current.setLooping(true);
+        fade = fadingOut == null ? 1f : 0f;
+        current.setVolume(MUSIC_VOLUME * volume * fade);
+        if (!paused) current.play();
+    }
+
+    public void update(float delta, WorldSnapshot world) {
+        float nextX = world.nextLevelX;
+        if (nextX == nextX && world.camX > nextX - PRELOAD_DISTANCE) preload(world.nextLevel);
+        if (paused) return;
+        if (pendingStage > 0) startPending();
+        if (fadingOut == null) return;
+        fade = Math.min(1f, fade + delta / CROSSFADE_SECONDS);
+        current.setVolume(MUSIC_VOLUME * volume * fade);
+        fadingOut.setVolume(MUSIC_VOLUME * volume * (1f - fade));
+        if (fade >= 1f) {
+            fadingOut.stop();
+            fadingOut = null;
+        }
+    }
+
+    public void playHit() {
+        long now = TimeUtils.millis();
+        if (now - lastHitMillis < HIT_MIN_INTERVAL_MS) return;
+        lastHitMillis = now;
+        long oldest = hitIds[hitCursor];
+        if (oldest != -1) hitSound.stop(oldest);
+        hitIds[hitCursor] = hitSound.play(HIT_VOLUME);
+        hitCursor = (hitCursor + 1) % HIT_VOICES;
+    }
+
+    public void pause() {
+        paused = true;
+        if (current != null) current.pause();
+        if (fadingOut != null) fadingOut.pause();
+    }
+
+    public void resume() {
+        paused = false;
+        if (current != null) current.play();
+        if (fadingOut != null) fadingOut.play();
+    }
+
+    public void stop() {
+        pendingStage = -1;
+        stopAll();
+    }
+
+    private void stopAll() {
+        if (fadingOut != null) fadingOut.stop();
+        if (current != null) current.stop();
+        fadingOut = null;
+        current = null;
+    }
+
+    public void dispose() {
+        stop();
+        for (int i = 0; i < stageTracks.length; i++) {
+            if (requested[i]) assets.release(stageTracks[i]);
+            requested[i] = false;
+        }
+    }
+}
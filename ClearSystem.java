@@ -0,0 +1,10 @@
+package io.nom.jbnu;
+
+public class ClearSystem {
+
+    public void update(GameWorld world, float delta) {
+        if (world.isEndless()) return;
+        LevelData levels = world.getLevelData();
+        if (world.getLevel() == levels.getStageCount() && world.runner.getX() > levels.getClearX()) world.clearLevel();
+    }
+}
@@ -0,0 +1,33 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.math.Rectangle;
+
+public class CollisionSystem {
+
+    private static final float HITBOX_MARGIN = 8f;
+
+    private final Rectangle runnerRect = new Rectangle();
+    private final Rectangle obsRect = new Rectangle();
+
+    public void update(GameWorld world, float delta) {
+        Runner runner = world.runner;
+        ObstacleStore obstacles = world.obstacles;
+        runnerRect.set(
+            runner.pos.x + HITBOX_MARGIN,
+            runner.pos.y + HITBOX_MARGIN,
+            64 - HITBOX_MARGIN * 2,
+            64 - HITBOX_MARGIN * 2
+        );
+        float reach = runnerRect.x + runnerRect.width;
+        for (int i = obstacles.lowerBound(runnerRect.x - obstacles.getMaxWidth()); i < obstacles.size(); i++) {
+            int s = obstacles.slot(i);
+            float ox = obstacles.x(s);
+            if (ox + 4 >= reach) break;
+            float ow = obstacles.w[s], oh = obstacles.h[s];
+            float oy = world.obstacleY(ox);
+            obsRect.set(ox + 4, oy + 4, ow - 8, oh - 8);
+            boolean fromAbove = runner.pos.y > oy + oh * 0.7f;
+            if (!runner.isCrashed() && runnerRect.overlaps(obsRect) && !fromAbove) world.crashRunner();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.nom.jbnu;
+
+public class DespawnSystem {
+
+    private static final float BEHIND = 200f;
+
+    public void update(GameWorld world, float delta) {
+        ObstacleStore obstacles = world.obstacles;
+        float limit = world.runner.getX() - BEHIND;
+        while (obstacles.size() > 0) {
+            int s = obstacles.slot(0);
+            if (obstacles.x(s) + obstacles.w[s] >= limit) break;
+            obstacles.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+public class DynamicResolution implements Disposable {
+
+    private final Viewport viewport;
+    private final TextureRegion region = new TextureRegion();
+    private FrameBuffer fbo;
+    private int width, height;
+
+    public DynamicResolution(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    public void resize(int screenWidth, int screenHeight) {
+        viewport.update(screenWidth, screenHeight);
+        float density = Gdx.graphics.getBackBufferWidth() / (float) Math.max(1, Gdx.graphics.getWidth());
+        int w = Math.max(1, Math.round(viewport.getScreenWidth() * density));
+        int h = Math.max(1, Math.round(viewport.getScreenHeight() * density));
+        if (fbo != null && fbo.getWidth() == w && fbo.getHeight() == h) return;
+        if (fbo != null) fbo.dispose();
+        fbo = new FrameBuffer(Pixmap.Format.RGB888, w, h, false);
+        fbo.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        region.setTexture(fbo.getColorBufferTexture());
+    }
+
+    public void begin(float scale) {
+        if (fbo == null) resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        width = Math.max(1, Math.round(fbo.getWidth() * scale));
+        height = Math.max(1, Math.round(fbo.getHeight() * scale));
+        fbo.begin();
+        Gdx.gl.glViewport(0, 0, width, height);
+    }
+
+    public void end() {
+        fbo.end();
+        viewport.apply();
+        float w = fbo.getWidth(), h = fbo.getHeight();
+        region.setRegion(0.5f / w, (height - 0.5f) / h, (width - 0.5f) / w, 0.5f / h);
+    }
+
+    public void draw(Batch batch, float x, float y, float w, float h) {
+        batch.disableBlending();
+        batch.draw(region, x, y, w, h);
+        batch.enableBlending();
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    @Override
+    public void dispose() {
+        if (fbo != null) fbo.dispose();
+        fbo = null;
+    }
+}
@@ -0,0 +1,100 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+public class EndlessTerrain implements Terrain {
+
+    public static final float CHUNK_WIDTH = 1280f;
+    private static final int SLOTS = 8;
+    private static final int FLAT_CHUNKS = 2;
+    private static final float[] HEIGHTS = {100f, 150f, 200f};
+    private static final long EDGE_SALT = 0x5DEECE66DL;
+
+    private long seed;
+    private final float spacing;
+    private final float invSpacing;
+    private final int samplesPerChunk;
+    private final float[][] samples = new float[SLOTS][];
+    private final long[] chunkOf = new long[SLOTS];
+    private final float[] points = new float[12];
+    private final RandomXS128 random = new RandomXS128(1L);
+
+    private long originChunk = 0;
+
+    public EndlessTerrain(long seed, float spacing) {
+        this.seed = seed;
+        this.spacing = spacing;
+        this.invSpacing = 1f / spacing;
+        this.samplesPerChunk = Math.round(CHUNK_WIDTH / spacing);
+        for (int i = 0; i < SLOTS; i++) {
+            samples[i] = new float[samplesPerChunk + 1];
+            chunkOf[i] = Long.MIN_VALUE;
+        }
+    }
+
+    @Override
+    public float height(float x) {
+        float f = x * invSpacing;
+        int i = (int) Math.floor(f);
+        int c = Math.floorDiv(i, samplesPerChunk);
+        int j = i - c * samplesPerChunk;
+        float[] s = samples[ensure(originChunk + c)];
+        float a = s[j];
+        return a + (s[j + 1] - a) * (f - i);
+    }
+
+    @Override public float getSpacing() { return spacing; }
+    @Override public float getOriginX() { return 0f; }
+
+    public long getOriginChunk() { return originChunk; }
+
+    public void shiftOrigin(int chunks) {
+        originChunk += chunks;
+    }
+
+    public void reset() {
+        originChunk = 0;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+        for (int i = 0; i < SLOTS; i++) chunkOf[i] = Long.MIN_VALUE;
+    }
+
+    private int ensure(long chunk) {
+        int s = (int) (chunk & (SLOTS - 1));
+        if (chunkOf[s] != chunk) {
+            generate(chunk, samples[s]);
+            chunkOf[s] = chunk;
+        }
+        return s;
+    }
+
+    private void generate(long chunk, float[] out) {
+        float e0 = edgeHeight(chunk);
+        float e1 = edgeHeight(chunk + 1);
+        random.setSeed(mix(seed, chunk));
+        float mid = chunk < FLAT_CHUNKS ? e0 : HEIGHTS[random.nextInt(HEIGHTS.length)];
+        float q = CHUNK_WIDTH / 8f;
+        float[] p = points;
+        p[0] = 0f;     p[1] = e0;
+        p[2] = q;      p[3] = e0;
+        p[4] = 3 * q;  p[5] = mid;
+        p[6] = 5 * q;  p[7] = mid;
+        p[8] = 7 * q;  p[9] = e1;
+        p[10] = 8 * q; p[11] = e1;
+        Heightfield.resample(p, 0f, spacing, out);
+    }
+
+    private float edgeHeight(long chunk) {
+        if (chunk < FLAT_CHUNKS) return HEIGHTS[0];
+        return HEIGHTS[(int) ((mix(seed ^ EDGE_SALT, chunk) >>> 1) % HEIGHTS.length)];
+    }
+
+    static long mix(long seed, long chunk) {
+        long z = seed + chunk * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
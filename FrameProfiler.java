@@ -0,0 +1,181 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+public class FrameProfiler {
+
+    public static final int FRAME = 0;
+    public static final int INPUT = 1;
+    public static final int LOGIC = 2;
+    public static final int AUDIO = 3;
+    public static final int OBSTACLES = 4;
+    public static final int RUNNER = 5;
+    public static final int GROUND = 6;
+    public static final int HUD = 7;
+    public static final int FLUSH = 8;
+    public static final int BACKGROUND = 9;
+    public static final int PARTICLES = 10;
+    public static final String[] NAMES = {"frame", "input", "logic", "audio", "obstacles", "runner", "ground", "hud", "flush", "background", "particles"};
+    public static final int SECTIONS = NAMES.length;
+
+    private final int window;
+    private final long[][] samples;
+    private final int[] renderCalls;
+    private final int[] gcEvents;
+    private final int[] gcTimes;
+    private final long[] started = new long[SECTIONS];
+    private final long[] current = new long[SECTIONS];
+    private final long[] scratch;
+    private int cursor = 0;
+    private int filled = 0;
+    private boolean enabled = false;
+
+    private final GarbageCollectorMXBean[] collectors;
+    private long gcCount = -1;
+    private long gcTime = 0;
+
+    private final float[] p50 = new float[SECTIONS];
+    private final float[] p99 = new float[SECTIONS];
+    private final float[] max = new float[SECTIONS];
+    private int windowGcEvents;
+    private int windowGcMillis;
+    private int maxRenderCalls;
+
+    public FrameProfiler(int window) {
+        this.window = window;
+        this.samples = new long[SECTIONS][window];
+        this.renderCalls = new int[window];
+        this.gcEvents = new int[window];
+        this.gcTimes = new int[window];
+        this.scratch = new long[window];
+        this.collectors = collectors();
+    }
+
+    private static GarbageCollectorMXBean[] collectors() {
+        try {
+            List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+            return beans.toArray(new GarbageCollectorMXBean[0]);
+        } catch (Throwable e) {
+            return new GarbageCollectorMXBean[0];
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            cursor = 0;
+            filled = 0;
+            gcCount = -1;
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void beginFrame() {
+        if (!enabled) return;
+        Arrays.fill(current, 0L);
+        started[FRAME] = System.nanoTime();
+    }
+
+    public void begin(int section) {
+        if (enabled) started[section] = System.nanoTime();
+    }
+
+    public void end(int section) {
+        if (enabled) current[section] += System.nanoTime() - started[section];
+    }
+
+    public void endFrame(int batchRenderCalls) {
+        if (!enabled) return;
+        end(FRAME);
+        for (int s = 0; s < SECTIONS; s++) samples[s][cursor] = current[s];
+        renderCalls[cursor] = batchRenderCalls;
+        pollGc();
+        cursor = (cursor + 1) % window;
+        if (filled < window) filled++;
+    }
+
+    private void pollGc() {
+        long count = 0, time = 0;
+        for (GarbageCollectorMXBean bean : collectors) {
+            count += Math.max(0L, bean.getCollectionCount());
+            time += Math.max(0L, bean.getCollectionTime());
+        }
+        boolean first = gcCount < 0;
+        gcEvents[cursor] = first ? 0 : (int) (count - gcCount);
+        gcTimes[cursor] = first ? 0 : (int) (time - gcTime);
+        gcCount = count;
+        gcTime = time;
+    }
+
+    public void refresh() {
+        for (int s = 0; s < SECTIONS; s++) {
+            System.arraycopy(samples[s], 0, scratch, 0, filled);
+            Arrays.sort(scratch, 0, filled);
+            p50[s] = millis(percentile(0.50f));
+            p99[s] = millis(percentile(0.99f));
+            max[s] = filled > 0 ? millis(scratch[filled - 1]) : 0f;
+        }
+        windowGcEvents = 0;
+        windowGcMillis = 0;
+        maxRenderCalls = 0;
+        for (int i = 0; i < filled; i++) {
+            windowGcEvents += gcEvents[i];
+            windowGcMillis += gcTimes[i];
+            maxRenderCalls = Math.max(maxRenderCalls, renderCalls[i]);
+        }
+    }
+
+    private long percentile(float p) {
+        if (filled == 0) return 0L;
+        return scratch[Math.min(filled - 1, (int) (p * filled))];
+    }
+
+    private static float millis(long nanos) {
+        return nanos / 1_000_000f;
+    }
+
+    public float getP50(int section) { return p50[section]; }
+    public float getP99(int section) { return p99[section]; }
+    public float getMax(int section) { return max[section]; }
+    public int getFrameCount() { return filled; }
+    public int getWindowGcEvents() { return windowGcEvents; }
+    public int getWindowGcMillis() { return windowGcMillis; }
+    public int getMaxRenderCalls() { return maxRenderCalls; }
+    public int getLastRenderCalls() { return filled > 0 ? renderCalls[(cursor - 1 + window) % window] : 0; }
+
+    public void exportCsv(FileHandle file) {
+        StringBuilder out = new StringBuilder(filled * 80);
+        out.append("frame");
+        for (String name : NAMES) out.append(',').append(name).append("_ms");
+        out.append(",render_calls,gc_events,gc_ms\n");
+        int start = (cursor - filled + window) % window;
+        for (int i = 0; i < filled; i++) {
+            int f = (start + i) % window;
+            out.append(i);
+            for (int s = 0; s < SECTIONS; s++) out.append(',').append(millis(samples[s][f]));
+            out.append(',').append(renderCalls[f]).append(',').append(gcEvents[f]).append(',').append(gcTimes[f]).append('\n');
+        }
+        file.writeString(out.toString(), false);
+    }
+
+    public void exportJson(FileHandle file) {
+        refresh();
+        StringBuilder out = new StringBuilder(1024);
+        out.append("{\n  \"frames\": ").append(filled).append(",\n  \"sections\": {\n");
+        for (int s = 0; s < SECTIONS; s++) {
+            out.append("    \"").append(NAMES[s]).append("\": {\"p50\": ").append(p50[s])
+                .append(", \"p99\": ").append(p99[s]).append(", \"max\": ").append(max[s]).append('}');
+            out.append(s < SECTIONS - 1 ? ",\n" : "\n");
+        }
+        out.append("  },\n  \"gcEvents\": ").append(windowGcEvents)
+            .append(",\n  \"gcMillis\": ").append(windowGcMillis)
+            .append(",\n  \"maxRenderCalls\": ").append(maxRenderCalls).append("\n}\n");
+        file.writeString(out.toString(), false);
+    }
+}
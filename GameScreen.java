@@ -1,330 +1,566 @@
 package io.nom.jbnu;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.ScreenUtils;
-import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
+
 public class GameScreen implements Screen {
 
+    private static final float STEP = GameWorld.STEP;
+    private static final float CAMERA_LEAD = 300f;
+    private static final float GROUND_CHUNK = 1024f;
+    private static final String[] STAGE_MUSIC = {"stage1.mp3", "stage2.mp3", "stage3.mp3"};
+    private static final int PROFILER_WINDOW = 600;
+    private static final float PROFILER_REFRESH = 0.5f;
+    private static final int LATENCY_WINDOW = 120;
+    private static final int MAX_PLAYBACK_SPEED = 16;
+    private static final float GHOST_ALPHA = 0.35f;
+    private static final int PARALLAX_CACHE = 64;
+    private static final int PARTICLE_CAPACITY = 16384;
+    private static final float CONFETTI_INTERVAL = 0.6f;
+    private static final float TARGET_FRAME = 1f / 60f;
+
     private final Main game;
     private final SpriteBatch batch;
     private final OrthographicCamera cam;
-    private final Runner runner;
-    private final BitmapFont font;
-    private final ShapeRenderer shapeRenderer;
+    private final FitViewport viewport;
+    private final DynamicResolution resolution;
+    private final QualityController quality;
+    private final SimulationLoop simulation;
+    private final boolean threaded;
+    private WorldSnapshot snapshot;
+    private int animTick = 0;
+    private final InputQueue input;
+    private final boolean playback;
+    private int playbackSpeed = 1;
+    private int shownPlaybackSpeed = -1;
+    private boolean shownPlaybackFinished = false;
+    private final GhostPlayer bestGhost;
+    private final GhostPlayer lastGhost;
+    private final GhostPlayer[] ghosts;
+    private boolean ghostsRunning = false;
+    private int ghostAttempt = 0;
+    private GameSprites sprites;
+    private RunnerRenderer runnerRenderer;
+    private AnimationMachine runnerAnim;
+    private AnimationMachine clearAnim;
+    private AnimationMachine[] ghostAnims;
+    private BitmapFont font;
+    private GroundMesh groundMesh;
+    private Parallax parallax;
+    private final ParticleSystem particles = new ParticleSystem(PARTICLE_CAPACITY);
+    private float confettiTimer = 0f;
+    private RenderStats renderStats;
+    private final FrameProfiler profiler = new FrameProfiler(PROFILER_WINDOW);
+    private float profilerRefreshTimer = 0f;
+    private final LatencyMeter latency = new LatencyMeter(LATENCY_WINDOW);
+    private final InputQueue.Listener actions = this::onAction;
+    private boolean resetPosted = false;
+    private boolean latencyEnabled = false;
+    private float latencyRefreshTimer = 0f;
 
-    private Texture[] obstacleTextures;
-    private Array<Obstacle> obstacles;
-    private float obstacleSpawnTimer = 0f;
-    private float spawnInterval = 1.5f;
-    private float lastObstacleX = 0f;
+    private AudioDirector audio;
 
-    private Music currentMusic;
-    private Sound hitSound;
+    private boolean paused = false;
 
-    private int level = 1;
-    private float baseGroundY = 100f;
+    private final GlyphLayout livesLayout = new GlyphLayout();
+    private final GlyphLayout levelLayout = new GlyphLayout();
+    private final GlyphLayout pausedLayout = new GlyphLayout();
+    private final GlyphLayout continueLayout = new GlyphLayout();
+    private final GlyphLayout clearLayout = new GlyphLayout();
+    private final GlyphLayout restartLayout = new GlyphLayout();
+    private final GlyphLayout statsLayout = new GlyphLayout();
+    private final GlyphLayout profilerLayout = new GlyphLayout();
+    private final GlyphLayout replayLayout = new GlyphLayout();
+    private final GlyphLayout latencyLayout = new GlyphLayout();
+    private final StringBuilder hudText = new StringBuilder(16);
+    private int hudLives = -1;
+    private int hudLevel = -1;
+    private int hudDistance = -1;
+    private int shownDrawCalls = -1;
+    private int shownBindings = -1;
+    private int shownFlushes = -1;
+    private int shownTiles = -1;
+    private int shownQuality = -1;
 
-    private Texture clearSheet;
-    private Animation<TextureRegion> clearAnim;
-    private float clearAnimTime = 0f;
+    public GameScreen(Main game) {
+        this(game, false);
+    }
 
-    private boolean paused = false;
-    private boolean gameOver = false;
-    private boolean levelCleared = false;
-
-    private static class Obstacle {
-        Rectangle rect;
-        int type;
-        Obstacle(Rectangle rect, int type) {
-            this.rect = rect;
-            this.type = type;
-        }
+    public GameScreen(Main game, boolean endless) {
+        this(game, new Replay(TimeUtils.nanoTime(), endless), false);
     }
 
-    public GameScreen(Main game) {
+    public GameScreen(Main game, Replay replay) {
+        this(game, replay, true);
+    }
+
+    private GameScreen(Main game, Replay replay, boolean playback) {
         this.game = game;
         this.batch = game.batch;
         this.cam = new OrthographicCamera(1280, 720);
-        this.runner = new Runner();
-        this.font = new BitmapFont();
-        this.shapeRenderer = new ShapeRenderer();
+        this.viewport = new FitViewport(1280, 720, cam);
+        this.resolution = new DynamicResolution(viewport);
+        this.quality = new QualityController(TARGET_FRAME, game.saves.getInt(SaveStore.RENDER_QUALITY, Integer.MAX_VALUE));
+        particles.setDensity(quality.getParticleDensity());
+        this.input = game.input;
+        this.playback = playback;
+        String ghostPrefix = "ghosts/" + (replay.isEndless() ? "endless" : "campaign");
+        this.bestGhost = playback ? null : new GhostPlayer(Gdx.files.local(ghostPrefix + "-best.ghost"));
+        this.lastGhost = playback ? null : new GhostPlayer(Gdx.files.local(ghostPrefix + "-last.ghost"));
+        this.ghosts = playback ? new GhostPlayer[0] : new GhostPlayer[] {bestGhost, lastGhost};
+        this.simulation = new SimulationLoop(replay.createWorld(game.levels.get()),
+            playback ? null : replay, playback ? null : Replay.newFile(), playback ? replay.player() : null,
+            playback ? null : new GhostRecorder(), game.saves);
+        this.threaded = Runtime.getRuntime().availableProcessors() > 1 && Gdx.app.getType() != Application.ApplicationType.WebGL;
+        this.snapshot = simulation.acquire();
+        game.assets.acquire(Assets.Group.GAME);
+    }
+
+    public boolean isReady() {
+        return game.assets.isLoaded(Assets.Group.GAME);
     }
 
     @Override
     public void show() {
-        obstacleTextures = new Texture[]{
-            new Texture(Gdx.files.internal("obstacle_box.png")),
-            new Texture(Gdx.files.internal("obstacle_rock.png")),
-            new Texture(Gdx.files.internal("obstacle_sign.png"))
-        };
-        hitSound = Gdx.audio.newSound(Gdx.files.internal("hit.wav"));
-        startMusic("stage1.mp3");
-        obstacles = new Array<>();
-        spawnObstacle();
-        cam.position.set(640, 360, 0);
-        clearSheet = new Texture(Gdx.files.internal("clear_sheet.png"));
-        TextureRegion[][] tmp = TextureRegion.split(clearSheet, clearSheet.getWidth() / 2, clearSheet.getHeight());
-        TextureRegion[] frames = new TextureRegion[2];
-        frames[0] = tmp[0][0];
-        frames[1] = tmp[0][1];
-        clearAnim = new Animation<>(0.2f, frames);
-    }
-
-    private void startMusic(String path) {
-        if (currentMusic != null) {
-            currentMusic.stop();
-            currentMusic.dispose();
+        if (sprites == null) {
+            sprites = new GameSprites(game.assets.get(GameSprites.ATLAS, TextureAtlas.class));
+            runnerRenderer = new RunnerRenderer(sprites);
+            runnerAnim = runnerRenderer.newMachine();
+            int landEvent = sprites.animations.event("land");
+            runnerAnim.setListener((machine, event) -> {
+                if (event == landEvent) particles.emit(ParticleSystem.DUST, snapshot.runnerX + 24, snapshot.runnerY, 16);
+            });
+            clearAnim = new AnimationMachine(sprites.animations, sprites.clear);
+            ghostAnims = new AnimationMachine[ghosts.length];
+            for (int i = 0; i < ghosts.length; i++) ghostAnims[i] = runnerRenderer.newMachine();
+            font = sprites.font;
+            groundMesh = new GroundMesh(sprites.pixel, GROUND_CHUNK, Color.BLACK);
+            parallax = new Parallax(sprites.atlas, PARALLAX_CACHE);
+            renderStats = new RenderStats();
+            font.getData().setScale(2f);
+            pausedLayout.setText(font, "PAUSED");
+            continueLayout.setText(font, "CONTINUE?");
+            clearLayout.setText(font, "LEVEL CLEAR!");
+            restartLayout.setText(font, "Press SPACE to Restart");
         }
-        currentMusic = Gdx.audio.newMusic(Gdx.files.internal(path));
-        currentMusic.setLooping(true);
-        currentMusic.setVolume(0.5f);
-        currentMusic.play();
-    }
-
-    private void spawnObstacle() {
-        float difficulty = MathUtils.clamp(runner.getX() / 5000f, 0f, 1f);
-        float minGap = MathUtils.lerp(600f, 300f, difficulty);
-        float maxGap = MathUtils.lerp(1000f, 600f, difficulty);
-        float gap = MathUtils.random(minGap, maxGap);
-        float x = Math.max(runner.getX() + 800, lastObstacleX + gap);
-        float y = getGroundHeight(x) - 4f;
-        float w = 64, h = 64;
-        int type = MathUtils.random(0, obstacleTextures.length - 1);
-        obstacles.add(new Obstacle(new Rectangle(x, y, w, h), type));
-        lastObstacleX = x;
+        if (audio == null) audio = new AudioDirector(game.assets, game.assets.get("hit.wav", Sound.class), STAGE_MUSIC);
+        audio.setVolume(game.saves.getFloat(SaveStore.MUSIC_VOLUME, 1f));
+        audio.playStage(1, false);
+        cam.position.set(640, 360, 0);
+        simulation.setView(CAMERA_LEAD, cam.viewportWidth, GROUND_CHUNK);
+        if (threaded) simulation.start();
+        input.setListener(actions);
     }
 
     @Override
     public void render(float delta) {
-        switch (level) {
-            case 1:
-                ScreenUtils.clear(0.7f, 0.85f, 1f, 1f);
-                break;
-            case 2:
-                ScreenUtils.clear(0.75f, 0.6f, 0.9f, 1f);
-                break;
-            case 3:
-                ScreenUtils.clear(0.7f, 0.7f, 0.7f, 1f);
-                break;
-        }
+        profiler.beginFrame();
+        if (game.levels.poll(delta)) simulation.setLevelData(game.levels.get());
 
+        renderStats.beginFrame();
+        profiler.begin(FrameProfiler.INPUT);
         handleInput();
-        if (!paused && !gameOver) updateGameLogic(delta);
+        profiler.end(FrameProfiler.INPUT);
+        profiler.begin(FrameProfiler.LOGIC);
+        if (!simulation.isThreaded()) simulation.update(delta);
+        snapshot = simulation.acquire();
+        resetPosted = false;
+        dispatchEvents();
+        syncGhosts();
+        float simDelta = (snapshot.tick - animTick) * STEP;
+        animTick = snapshot.tick;
+        runnerRenderer.update(runnerAnim, snapshot.runnerState, simDelta);
+        profiler.end(FrameProfiler.LOGIC);
+        profiler.begin(FrameProfiler.AUDIO);
+        audio.update(delta, snapshot);
+        profiler.end(FrameProfiler.AUDIO);
+        if (quality.update(delta)) particles.setDensity(quality.getParticleDensity());
+        resolution.begin(quality.getRenderScale());
+        Color clearColor = snapshot.levels.getStage(snapshot.level).clearColor;
+        ScreenUtils.clear(clearColor.r, clearColor.g, clearColor.b, 1f);
+        float alpha = snapshot.alpha(TimeUtils.nanoTime(), STEP);
+        cam.position.x = snapshot.interpolatedRunnerX(alpha) + CAMERA_LEAD;
         cam.update();
         batch.setProjectionMatrix(cam.combined);
         batch.begin();
-        drawObstacles();
-        runner.draw(batch);
-        batch.end();
+        profiler.begin(FrameProfiler.BACKGROUND);
+        drawBackground();
+        profiler.end(FrameProfiler.BACKGROUND);
+        profiler.begin(FrameProfiler.OBSTACLES);
+        drawObstacles(alpha);
+        profiler.end(FrameProfiler.OBSTACLES);
+        profiler.begin(FrameProfiler.RUNNER);
+        drawGhosts(alpha, simDelta);
+        runnerRenderer.draw(batch, runnerAnim, snapshot.interpolatedRunnerX(alpha), snapshot.interpolatedRunnerY(alpha));
+        profiler.end(FrameProfiler.RUNNER);
+        profiler.begin(FrameProfiler.GROUND);
         drawGround();
+        profiler.end(FrameProfiler.GROUND);
+        profiler.begin(FrameProfiler.PARTICLES);
+        particles.update(paused ? 0f : delta);
+        particles.draw(batch, sprites.pixel);
+        profiler.end(FrameProfiler.PARTICLES);
+        if (snapshot.levelCleared) drawClearAnimation(delta);
+        profiler.begin(FrameProfiler.FLUSH);
+        batch.end();
+        int sceneCalls = batch.renderCalls;
+        resolution.end();
+        profiler.end(FrameProfiler.FLUSH);
+
+        ScreenUtils.clear(0f, 0f, 0f, 1f);
         batch.begin();
+        resolution.draw(batch, cam.position.x - cam.viewportWidth / 2, cam.position.y - cam.viewportHeight / 2,
+            cam.viewportWidth, cam.viewportHeight);
+        profiler.begin(FrameProfiler.HUD);
         drawHUD();
-        if (levelCleared) drawClearAnimation(delta);
-        else if (paused) {
-            font.getData().setScale(2f);
-            font.draw(batch, "PAUSED", cam.position.x - 60, cam.viewportHeight / 2 + 40);
-        } else if (gameOver) {
-            font.getData().setScale(2f);
-            font.draw(batch, "CONTINUE?", cam.position.x - 100, cam.viewportHeight / 2 + 40);
+        profiler.end(FrameProfiler.HUD);
+        font.getData().setScale(2f);
+        if (snapshot.levelCleared) {
+            font.draw(batch, clearLayout, cam.position.x - 150, cam.viewportHeight / 2 + 40);
+            font.draw(batch, restartLayout, cam.position.x - 160, cam.viewportHeight / 2 - 60);
+        } else if (paused) {
+            font.draw(batch, pausedLayout, cam.position.x - 60, cam.viewportHeight / 2 + 40);
+        } else if (snapshot.gameOver) {
+            font.draw(batch, continueLayout, cam.position.x - 100, cam.viewportHeight / 2 + 40);
         }
+        if (playback) drawReplayInfo();
+        if (renderStats.isEnabled()) drawRenderStats();
+        if (profiler.isEnabled()) drawProfiler(delta);
+        if (latencyEnabled) drawLatency(delta);
+        profiler.begin(FrameProfiler.FLUSH);
         batch.end();
+        profiler.end(FrameProfiler.FLUSH);
+        if (latencyEnabled && latency.isPending()) {
+            Gdx.gl.glFinish();
+            latency.presented(TimeUtils.nanoTime());
+        }
+        renderStats.endFrame(sceneCalls + batch.renderCalls);
+        profiler.endFrame(sceneCalls + batch.renderCalls);
+    }
+
+    private void onAction(int action, long time) {
+        if (action == InputQueue.JUMP && !playback && !resetPosted) resetPosted = press(time);
     }
 
     private void handleInput() {
-        if (gameOver) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) resetGame();
+        if (playback) {
+            if (input.isJustPressed(Input.Keys.UP)) playbackSpeed = Math.min(MAX_PLAYBACK_SPEED, playbackSpeed * 2);
+            if (input.isJustPressed(Input.Keys.DOWN)) playbackSpeed = Math.max(1, playbackSpeed / 2);
+            simulation.setPlaybackSpeed(playbackSpeed);
+        } else if (snapshot.gameOver) {
             return;
         }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) && !paused) runner.jump();
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            paused = !paused;
-            if (paused && currentMusic != null) currentMusic.pause();
-            else if (!paused && currentMusic != null) currentMusic.play();
+        if (input.isJustPressed(Input.Keys.F2)) renderStats.setEnabled(!renderStats.isEnabled());
+        if (input.isJustPressed(Input.Keys.F3)) {
+            profiler.setEnabled(!profiler.isEnabled());
+            profilerRefreshTimer = PROFILER_REFRESH;
         }
-        if (levelCleared && Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            resetGame();
-            return;
+        if (input.isJustPressed(Input.Keys.F4) && profiler.isEnabled()) exportProfile();
+        if (input.isJustPressed(Input.Keys.F6)) {
+            latencyEnabled = !latencyEnabled;
+            latency.clear();
+            latencyRefreshTimer = PROFILER_REFRESH;
+        }
+        if (input.isJustPressed(Input.Keys.ESCAPE)) {
+            paused = !paused;
+            simulation.setPaused(paused);
+            if (paused) audio.pause();
+            else audio.resume();
         }
     }
 
-    private void updateGameLogic(float delta) {
-        float groundY = (level == 1) ? baseGroundY : getGroundHeight(runner.getX());
-        runner.update(delta, groundY);
-        if (levelCleared) return;
-        obstacleSpawnTimer += delta;
-        if (level == 3 && runner.getX() > 15000 && !levelCleared) {
-            levelCleared = true;
-            paused = false;
-            gameOver = false;
-            if (currentMusic != null) currentMusic.stop();
+    private boolean press(long time) {
+        if (snapshot.gameOver) {
+            simulation.post(Replay.RESET, time);
+            return true;
         }
-        if (obstacleSpawnTimer >= spawnInterval) {
-            spawnObstacle();
-            spawnInterval = MathUtils.random(0.1f, 1f);
-            obstacleSpawnTimer = 0f;
-        }
-        float hitboxMargin = 8f;
-        Rectangle runnerRect = new Rectangle(
-            runner.pos.x + hitboxMargin,
-            runner.pos.y + hitboxMargin,
-            64 - hitboxMargin * 2,
-            64 - hitboxMargin * 2
-        );
-        for (int i = 0; i < obstacles.size; i++) {
-            Obstacle obs = obstacles.get(i);
-            obs.rect.x -= 300 * delta;
-            float newY = getGroundHeight(obs.rect.x) - 4f;
-            obs.rect.y = newY;
-            Rectangle obsRect = new Rectangle(
-                obs.rect.x + 4, obs.rect.y + 4,
-                obs.rect.width - 8, obs.rect.height - 8
-            );
-            boolean fromAbove = runner.pos.y > obs.rect.y + obs.rect.height * 0.7f;
-            if (!runner.isCrashed() && runnerRect.overlaps(obsRect) && !fromAbove) {
-                hitSound.play(0.8f);
-                runner.crash();
-                if (runner.getLives() <= 0) {
-                    gameOver = true;
-                    if (currentMusic != null) currentMusic.stop();
-                }
-            }
-            if (obs.rect.x + obs.rect.width < runner.getX() - 200) {
-                obstacles.removeIndex(i);
-                i--;
+        if (!paused) simulation.post(Replay.JUMP, time);
+        if (!snapshot.levelCleared) return false;
+        simulation.post(Replay.RESET, time);
+        return true;
+    }
+
+    private void dispatchEvents() {
+        for (int event; (event = simulation.pollEvent(snapshot.sequence)) != SimulationLoop.EVENT_NONE; ) {
+            float x = simulation.getEventX(), y = simulation.getEventY();
+            switch (event) {
+                case SimulationLoop.EVENT_CRASH:
+                    audio.playHit();
+                    particles.emit(ParticleSystem.DEBRIS, x + 48, y + 24, 48);
+                    break;
+                case SimulationLoop.EVENT_LEVEL_CHANGED:
+                    audio.playStage((int) x, true);
+                    break;
+                case SimulationLoop.EVENT_LEVEL_CLEARED:
+                    paused = false;
+                    confettiTimer = CONFETTI_INTERVAL;
+                    audio.stop();
+                    break;
+                case SimulationLoop.EVENT_GAME_OVER:
+                    audio.stop();
+                    break;
+                case SimulationLoop.EVENT_ORIGIN_SHIFT:
+                    particles.shift(x);
+                    break;
+                case SimulationLoop.EVENT_COMMAND:
+                    if (latencyEnabled && (int) x == Replay.JUMP) latency.press(simulation.getEventTime());
+                    break;
+                case SimulationLoop.EVENT_RESET:
+                    particles.clear();
+                    audio.playStage(1, false);
+                    break;
             }
         }
-        if (cam.position.x > 5000 && level == 1) {
-            level = 2;
-            startMusic("stage2.mp3");
-        } else if (cam.position.x > 10000 && level == 2) {
-            level = 3;
-            startMusic("stage3.mp3");
+    }
+
+    private void syncGhosts() {
+        if (snapshot.ghostRecording && snapshot.attempt != ghostAttempt) {
+            ghostAttempt = snapshot.attempt;
+            ghostsRunning = true;
+            for (GhostPlayer ghost : ghosts) ghost.start(game.saves);
+            for (AnimationMachine anim : ghostAnims) anim.reset();
+        } else if (ghostsRunning && !snapshot.ghostRecording) {
+            finishGhosts();
+        }
+    }
+
+    private void finishGhosts() {
+        ghostsRunning = false;
+        for (GhostPlayer ghost : ghosts) ghost.close();
+        GhostRecorder recorder = simulation.getGhostRecorder();
+        byte[] track = recorder.toBytes();
+        if (recorder.beats(bestGhost)) game.saves.write(bestGhost.getFile(), track);
+        game.saves.write(lastGhost.getFile(), track);
+    }
+
+    private void drawGhosts(float alpha, float simDelta) {
+        if (!ghostsRunning) return;
+        int tick = snapshot.ghostTick;
+        float left = cam.position.x - cam.viewportWidth / 2 - 64;
+        float right = cam.position.x + cam.viewportWidth / 2;
+        double originX = snapshot.originX;
+        batch.setColor(1f, 1f, 1f, GHOST_ALPHA);
+        for (int i = 0; i < ghosts.length; i++) {
+            GhostPlayer ghost = ghosts[i];
+            ghost.advance(tick);
+            if (!ghost.isActive()) continue;
+            runnerRenderer.update(ghostAnims[i], ghost.getState(), simDelta);
+            float x = (float) (ghost.getX(tick, alpha) - originX);
+            if (x < left || x > right) continue;
+            runnerRenderer.draw(batch, ghostAnims[i], x, ghost.getY(tick, alpha));
         }
-        cam.position.x = runner.getX() + 300;
+        batch.setColor(Color.WHITE);
     }
 
     private void drawClearAnimation(float delta) {
-        clearAnimTime += delta;
-        TextureRegion frame = clearAnim.getKeyFrame(clearAnimTime, true);
+        clearAnim.update(delta);
+        confettiTimer += delta;
+        if (confettiTimer >= CONFETTI_INTERVAL) {
+            confettiTimer = 0f;
+            float top = cam.viewportHeight + 20;
+            particles.emit(ParticleSystem.CONFETTI, cam.position.x - cam.viewportWidth / 4, top - 200, 300);
+            particles.emit(ParticleSystem.CONFETTI, cam.position.x + cam.viewportWidth / 4, top - 200, 300);
+        }
+        TextureRegion frame = sprites.frames[sprites.clear][clearAnim.getFrame()];
         float clearX = cam.position.x + cam.viewportWidth / 2 - 250;
-        float clearY = baseGroundY - 15;
+        float clearY = snapshot.baseGroundY - 15;
         batch.draw(frame, clearX, clearY, 250, 250);
-        font.getData().setScale(2f);
-        font.draw(batch, "LEVEL CLEAR!", cam.position.x - 150, cam.viewportHeight / 2 + 40);
-        font.getData().setScale(2f);
-        font.draw(batch, "Press SPACE to Restart", cam.position.x - 160, cam.viewportHeight / 2 - 60);
-        runner.update(delta, getGroundHeight(runner.getX()));
-        cam.position.x = runner.getX() + 300;
-        cam.update();
     }
 
-    private void resetGame() {
-        gameOver = false;
-        level = 1;
-        runner.reset();
-        obstacles.clear();
-        obstacleSpawnTimer = 0f;
-        lastObstacleX = 0f;
-        spawnInterval = MathUtils.random(1.0f, 2.5f);
-        spawnObstacle();
-        startMusic("stage1.mp3");
+    private void drawObstacles(float alpha) {
+        WorldSnapshot s = snapshot;
+        float right = cam.position.x + cam.viewportWidth / 2;
+        float time = s.tick * STEP;
+        for (int i = 0; i < s.obstacleCount; i++) {
+            float x = s.obstacleX(i, alpha);
+            if (x >= right) break;
+            int state = sprites.obstacles[s.obstacleType[i]];
+            TextureRegion frame = sprites.frames[state][sprites.animations.frame(state, time)];
+            batch.draw(frame, x, s.obstacleY(x), s.obstacleW[i], s.obstacleH[i]);
+        }
     }
 
-    private void drawObstacles() {
-        for (Obstacle obs : obstacles)
-            batch.draw(obstacleTextures[obs.type], obs.rect.x, obs.rect.y, obs.rect.width, obs.rect.height);
+    private void drawHUD() {
+        font.getData().setScale(1.3f);
+        if (hudLives != snapshot.lives || hudLevel != snapshot.level || hudDistance != hudDistance()) rebuildHUD();
+        float x = cam.position.x - cam.viewportWidth / 2 + 50;
+        font.draw(batch, livesLayout, x, cam.viewportHeight - 50);
+        font.draw(batch, levelLayout, x, cam.viewportHeight - 80);
     }
 
-    private void drawHUD() {
+    private void rebuildHUD() {
+        hudLives = snapshot.lives;
+        hudLevel = snapshot.level;
+        hudDistance = hudDistance();
+        hudText.setLength(0);
+        hudText.append("LIVES : ").append(hudLives);
+        livesLayout.setText(font, hudText);
+        hudText.setLength(0);
+        if (snapshot.endless) hudText.append("DISTANCE: ").append(hudDistance).append('m');
+        else hudText.append("LEVEL: ").append(hudLevel);
+        levelLayout.setText(font, hudText);
+    }
+
+    private int hudDistance() {
+        return snapshot.endless ? (int) (snapshot.distance / 10f) : 0;
+    }
+
+    private void drawReplayInfo() {
         font.getData().setScale(1.3f);
-        font.draw(batch, "LIVES : " + runner.getLives(), cam.position.x - cam.viewportWidth / 2 + 50, cam.viewportHeight - 50);
-        font.draw(batch, "LEVEL: " + level, cam.position.x - cam.viewportWidth / 2 + 50, cam.viewportHeight - 80);
+        boolean finished = snapshot.playbackFinished;
+        if (shownPlaybackSpeed != playbackSpeed || shownPlaybackFinished != finished) {
+            shownPlaybackSpeed = playbackSpeed;
+            shownPlaybackFinished = finished;
+            hudText.setLength(0);
+            hudText.append("REPLAY x").append(playbackSpeed);
+            if (finished) hudText.append(snapshot.playbackMatches ? "  END (match)" : "  END (desync)");
+            replayLayout.setText(font, hudText);
+        }
+        font.draw(batch, replayLayout, cam.position.x + cam.viewportWidth / 2 - replayLayout.width - 50, cam.viewportHeight - 50);
     }
 
-    private void drawGround() {
-        shapeRenderer.setProjectionMatrix(cam.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(0, 0, 0, 1);
-        float startX = cam.position.x - cam.viewportWidth / 2;
-        float endX = cam.position.x + cam.viewportWidth / 2;
-        float step = 20f;
-        for (float x = startX; x < endX; x += step) {
-            float y = getGroundHeight(x);
-            shapeRenderer.rect(x, 0, step, y);
+    private void drawRenderStats() {
+        font.getData().setScale(1f);
+        if (shownDrawCalls != renderStats.getDrawCalls() || shownBindings != renderStats.getTextureBindings()
+            || shownFlushes != renderStats.getBatchFlushes() || shownTiles != parallax.getTilesDrawn()
+            || shownQuality != quality.getLevel()) {
+            shownDrawCalls = renderStats.getDrawCalls();
+            shownBindings = renderStats.getTextureBindings();
+            shownFlushes = renderStats.getBatchFlushes();
+            shownTiles = parallax.getTilesDrawn();
+            shownQuality = quality.getLevel();
+            hudText.setLength(0);
+            hudText.append("draw calls: ").append(renderStats.getDrawCalls())
+                .append("  texture binds: ").append(renderStats.getTextureBindings())
+                .append("  flushes: ").append(renderStats.getBatchFlushes())
+                .append("  sprites/flush: ").append((int) renderStats.getSpritesPerFlush())
+                .append("  bg tiles: ").append(shownTiles).append(" (misses ").append(parallax.getMisses()).append(')')
+                .append("  scale: ").append(Math.round(quality.getRenderScale() * 100)).append('%')
+                .append(' ').append(resolution.getWidth()).append('x').append(resolution.getHeight());
+            statsLayout.setText(font, hudText);
+        }
+        font.draw(batch, statsLayout, cam.position.x + cam.viewportWidth / 2 - statsLayout.width - 20, cam.viewportHeight - 20);
+    }
+
+    private void drawProfiler(float delta) {
+        font.getData().setScale(1f);
+        profilerRefreshTimer += delta;
+        if (profilerRefreshTimer >= PROFILER_REFRESH) {
+            profilerRefreshTimer = 0f;
+            profiler.refresh();
+            hudText.setLength(0);
+            hudText.append("section     p50 / p99 / max ms\n");
+            for (int s = 0; s < FrameProfiler.SECTIONS; s++) {
+                hudText.append(FrameProfiler.NAMES[s]).append(": ");
+                appendMillis(profiler.getP50(s)).append(" / ");
+                appendMillis(profiler.getP99(s)).append(" / ");
+                appendMillis(profiler.getMax(s)).append('\n');
+            }
+            hudText.append("render calls: ").append(profiler.getLastRenderCalls())
+                .append(" (max ").append(profiler.getMaxRenderCalls()).append(")\n");
+            hudText.append("gc: ").append(profiler.getWindowGcEvents()).append(" in ")
+                .append(profiler.getFrameCount()).append(" frames, ").append(profiler.getWindowGcMillis()).append(" ms");
+            profilerLayout.setText(font, hudText);
+        }
+        font.draw(batch, profilerLayout, cam.position.x - cam.viewportWidth / 2 + 50, cam.viewportHeight - 120);
+    }
+
+    private void drawLatency(float delta) {
+        font.getData().setScale(1f);
+        if (latency.isPending()) {
+            batch.draw(sprites.pixel, cam.position.x - cam.viewportWidth / 2, 0, 48, 48);
         }
-        shapeRenderer.end();
-    }
-
-    private float getGroundHeight(float x) {
-        switch (level) {
-            case 1:
-                return baseGroundY;
-            case 2:
-                if (x < 5000) return baseGroundY;
-                else if (x < 5800) {
-                    float rise = (x - 5000) * 0.125f;
-                    return Math.min(baseGroundY + rise, 200f);
-                } else if (x < 7300) return 200f;
-                else if (x < 8100) {
-                    float fall = (x - 7300) * 0.125f;
-                    return Math.max(200f - fall, baseGroundY);
-                } else return baseGroundY;
-            case 3:
-                if (x < 4000) return baseGroundY;
-                else if (x < 4800) {
-                    float rise = (x - 4000) * 0.125f;
-                    return Math.min(baseGroundY + rise, 200f);
-                } else if (x < 6000) return 200f;
-                else if (x < 6800) {
-                    float fall = (x - 6000) * 0.125f;
-                    return Math.max(200f - fall, baseGroundY);
-                } else if (x < 7600) {
-                    float rise = (x - 6800) * 0.125f;
-                    return Math.min(baseGroundY + rise, 200f);
-                } else if (x < 8600) return 200f;
-                else if (x < 9400) {
-                    float fall = (x - 8600) * 0.125f;
-                    return Math.max(200f - fall, baseGroundY);
-                } else return baseGroundY;
-            default:
-                return baseGroundY;
+        latencyRefreshTimer += delta;
+        if (latencyRefreshTimer >= PROFILER_REFRESH) {
+            latencyRefreshTimer = 0f;
+            latency.refresh();
+            hudText.setLength(0);
+            hudText.append("input -> frame ms (").append(latency.getCount()).append(" presses)  last ");
+            appendMillis(latency.getLast()).append("  p50 ");
+            appendMillis(latency.getP50()).append("  p95 ");
+            appendMillis(latency.getP95()).append("  max ");
+            appendMillis(latency.getMax()).append("  + scanout ");
+            appendMillis(1000f / Math.max(1, Gdx.graphics.getDisplayMode().refreshRate));
+            latencyLayout.setText(font, hudText);
         }
+        font.draw(batch, latencyLayout, cam.position.x - cam.viewportWidth / 2 + 60, 40);
     }
 
-    public static float getGroundHeightStatic(float x) {
-        float base = 100f;
-        if (x < 4000) return base + (x / 40f);
-        else if (x < 8000) return base + 1000 - ((x - 4000) / 40f);
-        else if (x < 12000) return base + ((x - 8000) / 50f);
-        else return base;
+    private StringBuilder appendMillis(float ms) {
+        int hundredths = Math.round(ms * 100f);
+        hudText.append(hundredths / 100).append('.');
+        int frac = hundredths % 100;
+        if (frac < 10) hudText.append('0');
+        return hudText.append(frac);
+    }
+
+    private void exportProfile() {
+        String name = "profiles/frame-" + TimeUtils.millis();
+        profiler.exportCsv(Gdx.files.local(name + ".csv"));
+        profiler.exportJson(Gdx.files.local(name + ".json"));
+    }
+
+    private void drawBackground() {
+        LevelData.Layer[] layers = snapshot.levels.getStage(snapshot.level).layers;
+        int count = Math.min(layers.length, quality.getBackgroundLayers());
+        parallax.draw(batch, layers, count, snapshot.originX, cam.position.x - cam.viewportWidth / 2, cam.viewportWidth);
+    }
+
+    private void drawGround() {
+        groundMesh.setTerrain(snapshot.ground, snapshot.groundVersion);
+        float startX = cam.position.x - cam.viewportWidth / 2;
+        float endX = cam.position.x + cam.viewportWidth / 2;
+        groundMesh.draw(batch, startX, endX);
     }
 
     @Override
     public void dispose() {
-        for (Texture tex : obstacleTextures) tex.dispose();
-        if (currentMusic != null) currentMusic.dispose();
-        if (hitSound != null) hitSound.dispose();
-        runner.dispose();
-        font.dispose();
-        shapeRenderer.dispose();
-    }
-
-    @Override public void resize(int width, int height) {}
-    @Override public void pause() {}
-    @Override public void resume() {}
-    @Override public void hide() {}
+        input.setListener(null);
+        simulation.stop();
+        simulation.finish();
+        snapshot = simulation.acquire();
+        if (ghostsRunning && !snapshot.ghostRecording) finishGhosts();
+        for (GhostPlayer ghost : ghosts) ghost.dispose();
+        if (audio != null) audio.dispose();
+        if (renderStats != null) renderStats.setEnabled(false);
+        profiler.setEnabled(false);
+        if (sprites != null) sprites.dispose();
+        resolution.dispose();
+        game.saves.putInt(SaveStore.RENDER_QUALITY, quality.getLevel());
+        game.assets.release(Assets.Group.GAME);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        resolution.resize(width, height);
+    }
+    @Override
+    public void pause() {
+        simulation.stop();
+    }
+
+    @Override
+    public void resume() {
+        if (threaded) simulation.start();
+    }
+
+    @Override
+    public void hide() {
+        input.setListener(null);
+        simulation.stop();
+    }
 }
@@ -0,0 +1,44 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+public class GameSprites {
+
+    public static final String ATLAS = "game.atlas";
+    public static final String PIXEL = "pixel";
+    public static final String FONT = "font";
+    public static final String FONT_FILE = "com/badlogic/gdx/utils/lsans-15.fnt";
+    private static final String[] OBSTACLES = {"obstacle_box", "obstacle_rock", "obstacle_sign"};
+
+    public final TextureAtlas atlas;
+    public final BitmapFont font;
+    public final TextureRegion pixel;
+    public final AnimationGraph animations;
+    public final TextureRegion[][] frames;
+    public final int[] obstacles;
+    public final int clear;
+
+    public GameSprites(TextureAtlas atlas) {
+        this.atlas = atlas;
+        this.font = new BitmapFont(Gdx.files.classpath(FONT_FILE), find(FONT), false);
+        this.pixel = find(PIXEL);
+        this.animations = AnimationGraph.load(Gdx.files.internal(AnimationGraph.FILE));
+        this.frames = animations.bind(atlas);
+        this.obstacles = new int[OBSTACLES.length];
+        for (int i = 0; i < OBSTACLES.length; i++) obstacles[i] = animations.state(OBSTACLES[i]);
+        this.clear = animations.state("clear");
+    }
+
+    private TextureRegion find(String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) throw new IllegalStateException("Missing atlas region: " + name);
+        return region;
+    }
+
+    public void dispose() {
+        font.dispose();
+    }
+}
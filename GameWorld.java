@@ -0,0 +1,175 @@
+package io.nom.jbnu;
+
+public class GameWorld {
+
+    public interface Listener {
+        void onCrash();
+        void onLevelChanged(int level);
+        void onLevelCleared();
+        void onGameOver();
+        void onOriginShift(float dx);
+    }
+
+    public static final float STEP = 1f / 120f;
+    public static final int OBSTACLE_TYPES = 3;
+    public static final float OBSTACLE_SPEED = 300f;
+
+    private static final float ENDLESS_LEVEL_LENGTH = 5000f;
+
+    public final Runner runner = new Runner();
+    public final ObstacleStore obstacles = new ObstacleStore(32);
+
+    private final SpawnSystem spawner;
+    private final RunnerSystem runnerSystem = new RunnerSystem();
+    private final ClearSystem clearSystem = new ClearSystem();
+    private final ScrollSystem scrollSystem = new ScrollSystem();
+    private final CollisionSystem collisionSystem = new CollisionSystem();
+    private final DespawnSystem despawnSystem = new DespawnSystem();
+    private final ProgressionSystem progressionSystem = new ProgressionSystem();
+    private final boolean endless;
+    private final EndlessTerrain endlessTerrain;
+    private LevelData levels;
+    private Listener listener;
+
+    private int level = 1;
+    private Terrain terrain;
+    private final float baseGroundY = 100f;
+    private float camX;
+    private int tick = 0;
+
+    private double originX = 0;
+    private double travel = 0;
+    private double nextLevelDistance = ENDLESS_LEVEL_LENGTH;
+
+    private boolean gameOver = false;
+    private boolean levelCleared = false;
+
+    public GameWorld(long seed, LevelData levels) {
+        this(seed, levels, false);
+    }
+
+    public GameWorld(long seed, LevelData levels, boolean endless) {
+        this.levels = levels;
+        this.endless = endless;
+        this.endlessTerrain = endless ? new EndlessTerrain(seed, levels.getSpacing()) : null;
+        this.spawner = new SpawnSystem(seed);
+        terrain = endless ? endlessTerrain : levels.getStage(1).terrain;
+        camX = runner.getX() + 300;
+        spawner.begin(this);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void step(float delta) {
+        tick++;
+        runnerSystem.update(this, delta);
+        if (!levelCleared) {
+            clearSystem.update(this, delta);
+            spawner.update(this, delta);
+            scrollSystem.update(this, delta);
+            collisionSystem.update(this, delta);
+            despawnSystem.update(this, delta);
+            progressionSystem.update(this, delta);
+        }
+    }
+
+    void crashRunner() {
+        runner.crash();
+        if (listener != null) listener.onCrash();
+        if (runner.getLives() <= 0) {
+            gameOver = true;
+            if (listener != null) listener.onGameOver();
+        }
+    }
+
+    void clearLevel() {
+        if (levelCleared) return;
+        levelCleared = true;
+        gameOver = false;
+        if (listener != null) listener.onLevelCleared();
+    }
+
+    void advanceLevel() {
+        if (endless) nextLevelDistance += ENDLESS_LEVEL_LENGTH;
+        setLevel(getNextLevel());
+        if (listener != null) listener.onLevelChanged(level);
+    }
+
+    void rebase() {
+        int chunks = (int) (runner.getX() / EndlessTerrain.CHUNK_WIDTH) - 1;
+        float dx = chunks * EndlessTerrain.CHUNK_WIDTH;
+        originX += dx;
+        endlessTerrain.shiftOrigin(chunks);
+        runner.shiftOrigin(dx);
+        camX -= dx;
+        obstacles.shift(dx);
+        if (listener != null) listener.onOriginShift(dx);
+    }
+
+    public void reset() {
+        resetState();
+        spawner.reset(this);
+    }
+
+    public void reset(long seed) {
+        tick = 0;
+        if (endless) endlessTerrain.setSeed(seed);
+        resetState();
+        spawner.reseed(seed);
+        spawner.begin(this);
+    }
+
+    private void resetState() {
+        gameOver = false;
+        levelCleared = false;
+        setLevel(1);
+        runner.reset();
+        obstacles.clear();
+        camX = runner.getX() + 300;
+        originX = 0;
+        travel = 0;
+        nextLevelDistance = ENDLESS_LEVEL_LENGTH;
+        if (endless) endlessTerrain.reset();
+    }
+
+    public float getGroundHeight(float x) {
+        return terrain.height(x);
+    }
+
+    public float obstacleY(float x) {
+        return terrain.height(x) - 4f;
+    }
+
+    void setLevel(int level) {
+        this.level = level;
+        if (!endless) terrain = levels.getStage(level).terrain;
+    }
+
+    public void setLevelData(LevelData levels) {
+        this.levels = levels;
+        setLevel(Math.min(level, levels.getStageCount()));
+    }
+
+    public int getLevel() { return level; }
+    public int getLevelCount() { return levels.getStageCount(); }
+    public int getNextLevel() { return endless ? level % levels.getStageCount() + 1 : level + 1; }
+    public float getNextLevelX() {
+        if (endless) return (float) (nextLevelDistance - originX);
+        return level < levels.getStageCount() ? levels.getStage(level + 1).startX : Float.NaN;
+    }
+    public LevelData getLevelData() { return levels; }
+    public float getCamX() { return camX; }
+    void setCamX(float camX) { this.camX = camX; }
+    public double getTravel() { return travel; }
+    void addTravel(double distance) { travel += distance; }
+    public int getTick() { return tick; }
+    public float getDistance() { return (float) (originX + runner.getX()); }
+    public double getOriginX() { return originX; }
+    public boolean isEndless() { return endless; }
+    public Terrain getTerrain() { return terrain; }
+    public float getBaseGroundY() { return baseGroundY; }
+    public boolean isGameOver() { return gameOver; }
+    public boolean isLevelCleared() { return levelCleared; }
+}
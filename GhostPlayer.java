@@ -0,0 +1,213 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+public class GhostPlayer {
+
+    private static final Runner.State[] STATES = Runner.State.values();
+    private static final int BUFFER_SIZE = 4096;
+
+    private static class Track {
+        DataInputStream in;
+        int interval;
+        float quantum;
+        int sampleCount;
+        float distance;
+    }
+
+    private final FileHandle file;
+    private int requests;
+    private int arrived;
+    private Track pending;
+
+    private DataInputStream in;
+    private boolean loading;
+    private boolean hasTrack;
+    private int interval;
+    private float quantum;
+    private int sampleCount;
+    private float distance;
+
+    private int decoded;
+    private int qx, qy;
+    private float prevX, prevY, nextX, nextY;
+    private Runner.State prevState, nextState;
+    private int nextTick;
+    private boolean finished = true;
+
+    public GhostPlayer(FileHandle file) {
+        this.file = file;
+    }
+
+    public void start(SaveStore saves) {
+        close();
+        finished = true;
+        loading = true;
+        int request;
+        synchronized (this) {
+            request = ++requests;
+        }
+        saves.execute(() -> open(request));
+    }
+
+    private void open(int request) {
+        Track track = null;
+        try {
+            if (file.exists()) track = readHeader(new DataInputStream(new BufferedInputStream(file.read(), BUFFER_SIZE)));
+        } catch (IOException | GdxRuntimeException ignored) {
+        }
+        Track stale = track;
+        synchronized (this) {
+            if (request == requests) {
+                stale = pending;
+                pending = track;
+                arrived = request;
+            }
+        }
+        if (stale != null) close(stale.in);
+    }
+
+    private static Track readHeader(DataInputStream in) throws IOException {
+        Track track = new Track();
+        track.in = in;
+        if (in.readInt() != GhostRecorder.MAGIC || in.readByte() != GhostRecorder.VERSION) {
+            close(in);
+            return null;
+        }
+        track.interval = in.readByte();
+        track.quantum = in.readFloat();
+        track.sampleCount = in.readInt();
+        track.distance = in.readFloat();
+        if (track.interval <= 0 || track.sampleCount < 2) {
+            close(in);
+            return null;
+        }
+        return track;
+    }
+
+    private boolean adopt() {
+        Track track;
+        synchronized (this) {
+            if (arrived != requests) return false;
+            track = pending;
+            pending = null;
+        }
+        loading = false;
+        hasTrack = false;
+        if (track == null) return false;
+        in = track.in;
+        interval = track.interval;
+        quantum = track.quantum;
+        sampleCount = track.sampleCount;
+        distance = track.distance;
+        decoded = 0;
+        qx = 0;
+        qy = 0;
+        try {
+            decode();
+            prevX = nextX;
+            prevY = nextY;
+            prevState = nextState;
+            decode();
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            close();
+            return false;
+        }
+        nextTick = interval;
+        hasTrack = true;
+        finished = false;
+        return true;
+    }
+
+    public void advance(int tick) {
+        if (loading && !adopt()) return;
+        if (finished) return;
+        while (nextTick <= tick) {
+            prevX = nextX;
+            prevY = nextY;
+            prevState = nextState;
+            if (decoded >= sampleCount) {
+                finished = true;
+                close();
+                return;
+            }
+            try {
+                decode();
+            } catch (IOException | ArrayIndexOutOfBoundsException e) {
+                finished = true;
+                close();
+                return;
+            }
+            nextTick += interval;
+        }
+    }
+
+    private void decode() throws IOException {
+        nextState = STATES[in.readByte()];
+        qx += unzigzag(readVarInt());
+        qy += unzigzag(readVarInt());
+        nextX = qx * quantum;
+        nextY = qy * quantum;
+        decoded++;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public float getX(int tick, float alpha) {
+        float t = (tick + alpha - (nextTick - interval)) / interval;
+        return prevX + (nextX - prevX) * Math.min(1f, Math.max(0f, t));
+    }
+
+    public float getY(int tick, float alpha) {
+        float t = (tick + alpha - (nextTick - interval)) / interval;
+        return prevY + (nextY - prevY) * Math.min(1f, Math.max(0f, t));
+    }
+
+    public Runner.State getState() { return prevState; }
+    public boolean isActive() { return hasTrack && !finished; }
+    public boolean isLoading() { return loading; }
+    public boolean hasTrack() { return hasTrack; }
+    public float getDistance() { return distance; }
+    public FileHandle getFile() { return file; }
+    public int getSampleCount() { return sampleCount; }
+
+    public void close() {
+        close(in);
+        in = null;
+    }
+
+    public void dispose() {
+        close();
+        Track track;
+        synchronized (this) {
+            requests++;
+            track = pending;
+            pending = null;
+        }
+        if (track != null) close(track.in);
+    }
+
+    private static void close(DataInputStream in) {
+        if (in == null) return;
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class GhostRecorder {
+
+    static final int MAGIC = 0x4E4F4D47;
+    static final int VERSION = 1;
+    static final int INTERVAL = 4;
+    static final float QUANTUM = 0.25f;
+
+    private final ByteArray data = new ByteArray(64 * 1024);
+    private int tick;
+    private int samples;
+    private int lastX;
+    private int lastY;
+    private float distance;
+
+    public void start(GameWorld world) {
+        data.clear();
+        tick = 0;
+        samples = 0;
+        lastX = 0;
+        lastY = 0;
+        distance = 0f;
+        sample(world);
+    }
+
+    public void step(GameWorld world) {
+        if (++tick % INTERVAL == 0) sample(world);
+    }
+
+    private void sample(GameWorld world) {
+        Runner runner = world.runner;
+        int qx = (int) Math.round((world.getOriginX() + runner.pos.x) / QUANTUM);
+        int qy = Math.round(runner.pos.y / QUANTUM);
+        data.add((byte) runner.getState().ordinal());
+        writeVarInt(zigzag(qx - lastX));
+        writeVarInt(zigzag(qy - lastY));
+        lastX = qx;
+        lastY = qy;
+        samples++;
+        distance = Math.max(distance, world.getDistance());
+    }
+
+    public int getTick() { return tick; }
+    public float getDistance() { return distance; }
+    public int getSampleCount() { return samples; }
+    public int getByteCount() { return data.size; }
+
+    public boolean beats(GhostPlayer best) {
+        if (samples < 2 || best.isLoading()) return false;
+        if (!best.hasTrack()) return true;
+        if (distance > best.getDistance() + 1f) return true;
+        return distance > best.getDistance() - 1f && samples < best.getSampleCount();
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.size + 18);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(INTERVAL);
+            out.writeFloat(QUANTUM);
+            out.writeInt(samples);
+            out.writeFloat(distance);
+            out.write(data.items, 0, data.size);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not encode ghost", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            data.add((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.add((byte) value);
+    }
+}
@@ -0,0 +1,135 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+public class GroundMesh {
+
+    private static final int FLOATS_PER_QUAD = 20;
+    private static final int SLOTS = 4;
+    private static final float SLOPE_EPSILON = 1e-4f;
+
+    private final float chunkWidth;
+    private final float color;
+    private final float u;
+    private final float v;
+    private final Texture texture;
+
+    private Terrain terrain;
+    private int version;
+    private float spacing;
+    private final float[][] vertices = new float[SLOTS][];
+    private final int[] counts = new int[SLOTS];
+    private final int[] chunkOf = new int[SLOTS];
+
+    public GroundMesh(TextureRegion pixel, float chunkWidth, Color groundColor) {
+        this.chunkWidth = chunkWidth;
+        this.color = groundColor.toFloatBits();
+        this.u = (pixel.getU() + pixel.getU2()) * 0.5f;
+        this.v = (pixel.getV() + pixel.getV2()) * 0.5f;
+        this.texture = pixel.getTexture();
+        invalidate();
+    }
+
+    public void setTerrain(Terrain terrain) {
+        if (this.terrain == terrain) return;
+        setTerrain(terrain, version + 1);
+    }
+
+    public void setTerrain(Terrain terrain, int version) {
+        this.terrain = terrain;
+        if (this.version == version && spacing == terrain.getSpacing()) return;
+        this.version = version;
+        spacing = terrain.getSpacing();
+        int maxQuads = (int) Math.ceil(chunkWidth / spacing) + 2;
+        for (int i = 0; i < SLOTS; i++) {
+            if (vertices[i] == null || vertices[i].length < maxQuads * FLOATS_PER_QUAD)
+                vertices[i] = new float[maxQuads * FLOATS_PER_QUAD];
+        }
+        invalidate();
+    }
+
+    public Terrain getTerrain() { return terrain; }
+    public float getChunkWidth() { return chunkWidth; }
+
+    public void invalidate() {
+        for (int i = 0; i < SLOTS; i++) chunkOf[i] = Integer.MIN_VALUE;
+    }
+
+    public void draw(Batch batch, float startX, float endX) {
+        int first = chunkIndex(startX);
+        int last = chunkIndex(endX);
+        for (int c = first; c <= last; c++) {
+            int s = ensure(c);
+            batch.draw(texture, vertices[s], 0, counts[s]);
+        }
+    }
+
+    int visibleVertexCount(float startX, float endX) {
+        int first = chunkIndex(startX);
+        int last = chunkIndex(endX);
+        int total = 0;
+        for (int c = first; c <= last; c++) total += counts[ensure(c)] / 5;
+        return total;
+    }
+
+    private int chunkIndex(float x) {
+        return (int) Math.floor(x / chunkWidth);
+    }
+
+    private int ensure(int chunk) {
+        int s = Math.floorMod(chunk, SLOTS);
+        if (chunkOf[s] != chunk) {
+            counts[s] = build(chunk, vertices[s]);
+            chunkOf[s] = chunk;
+        }
+        return s;
+    }
+
+    int build(int chunk, float[] out) {
+        float x0 = chunk * chunkWidth;
+        float x1 = x0 + chunkWidth;
+        float spacing = terrain.getSpacing();
+        float origin = terrain.getOriginX();
+        int firstSample = (int) Math.floor((x0 - origin) / spacing) + 1;
+
+        int n = 0;
+        float segX = x0, segH = terrain.height(x0);
+        float prevX = segX, prevH = segH;
+        float slope = Float.NaN;
+        for (int i = firstSample; ; i++) {
+            float x = origin + i * spacing;
+            if (x >= x1) x = x1;
+            float h = terrain.height(x);
+            float s = (h - prevH) / (x - prevX);
+            if (slope == slope && Math.abs(s - slope) > SLOPE_EPSILON) {
+                n = quad(out, n, segX, segH, prevX, prevH);
+                segX = prevX;
+                segH = prevH;
+            }
+            slope = s;
+            prevX = x;
+            prevH = h;
+            if (x == x1) break;
+        }
+        return quad(out, n, segX, segH, prevX, prevH);
+    }
+
+    private int quad(float[] out, int n, float xa, float ha, float xb, float hb) {
+        n = vertex(out, n, xa, 0f);
+        n = vertex(out, n, xa, ha);
+        n = vertex(out, n, xb, hb);
+        return vertex(out, n, xb, 0f);
+    }
+
+    private int vertex(float[] out, int n, float x, float y) {
+        out[n] = x;
+        out[n + 1] = y;
+        out[n + 2] = color;
+        out[n + 3] = u;
+        out[n + 4] = v;
+        return n + 5;
+    }
+}
@@ -0,0 +1,60 @@
+package io.nom.jbnu;
+
+public class Heightfield implements Terrain {
+
+    private final float originX;
+    private final float spacing;
+    private final float invSpacing;
+    private final float[] samples;
+    private final int last;
+
+    public Heightfield(float originX, float spacing, float[] samples) {
+        this.originX = originX;
+        this.spacing = spacing;
+        this.invSpacing = 1f / spacing;
+        this.samples = samples;
+        this.last = samples.length - 1;
+    }
+
+    public static Heightfield fromPoints(float[] points, float spacing) {
+        float startX = points[0];
+        float endX = points[points.length - 2];
+        int count = Math.max(1, (int) Math.ceil((endX - startX) / spacing)) + 1;
+        float[] samples = new float[count];
+        resample(points, startX, spacing, samples);
+        return new Heightfield(startX, spacing, samples);
+    }
+
+    static void resample(float[] points, float startX, float spacing, float[] out) {
+        int seg = 0;
+        for (int i = 0; i < out.length; i++) {
+            float x = startX + i * spacing;
+            while (seg + 3 < points.length && x > points[seg + 2]) seg += 2;
+            if (seg + 3 >= points.length) {
+                out[i] = points[points.length - 1];
+                continue;
+            }
+            float x0 = points[seg], y0 = points[seg + 1];
+            float x1 = points[seg + 2], y1 = points[seg + 3];
+            float t = x1 > x0 ? (x - x0) / (x1 - x0) : 1f;
+            out[i] = y0 + (y1 - y0) * Math.min(1f, Math.max(0f, t));
+        }
+    }
+
+    @Override
+    public float height(float x) {
+        float f = (x - originX) * invSpacing;
+        if (f <= 0f) return samples[0];
+        if (f >= last) return samples[last];
+        int i = (int) f;
+        float a = samples[i];
+        return a + (samples[i + 1] - a) * (f - i);
+    }
+
+    @Override public float getOriginX() { return originX; }
+    @Override public float getSpacing() { return spacing; }
+    public float getEndX() { return originX + last * spacing; }
+    public int getSampleCount() { return samples.length; }
+
+    float getSample(int i) { return samples[i]; }
+}
@@ -0,0 +1,79 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.ControllerAdapter;
+import com.badlogic.gdx.controllers.ControllerMapping;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+public class InputQueue extends InputAdapter implements InputSource {
+
+    public interface Listener {
+        void onAction(int action, long time);
+    }
+
+    public static final int JUMP = 1;
+
+    private Listener listener;
+
+    private final boolean[] virtualKeys = new boolean[Input.Keys.MAX_KEYCODE + 1];
+    private final ControllerAdapter gamepad = new ControllerAdapter() {
+        @Override
+        public boolean buttonDown(Controller controller, int buttonIndex) {
+            ControllerMapping mapping = controller.getMapping();
+            long time = TimeUtils.nanoTime();
+            if (buttonIndex == mapping.buttonA || buttonIndex == mapping.buttonB) {
+                virtualKeys[Input.Keys.SPACE] = true;
+                push(JUMP, time);
+            } else if (buttonIndex == mapping.buttonStart) {
+                virtualKeys[Input.Keys.ESCAPE] = true;
+            } else if (buttonIndex == mapping.buttonDpadUp) {
+                virtualKeys[Input.Keys.UP] = true;
+            } else if (buttonIndex == mapping.buttonDpadDown) {
+                virtualKeys[Input.Keys.DOWN] = true;
+            }
+            return false;
+        }
+    };
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode == Input.Keys.SPACE) push(JUMP, eventTime());
+        return false;
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        virtualKeys[Input.Keys.SPACE] = true;
+        push(JUMP, eventTime());
+        return false;
+    }
+
+    private long eventTime() {
+        long time = Gdx.input.getCurrentEventTime();
+        return time != 0L ? time : TimeUtils.nanoTime();
+    }
+
+    private void push(int action, long time) {
+        if (listener != null) listener.onAction(action, time);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean isJustPressed(int key) {
+        return Gdx.input.isKeyJustPressed(key) || virtualKeys[key];
+    }
+
+    public void endFrame() {
+        Arrays.fill(virtualKeys, false);
+    }
+
+    public ControllerAdapter getGamepadListener() { return gamepad; }
+}
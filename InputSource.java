@@ -0,0 +1,6 @@
+package io.nom.jbnu;
+
+public interface InputSource {
+
+    boolean isJustPressed(int key);
+}
@@ -0,0 +1,55 @@
+package io.nom.jbnu;
+
+import java.util.Arrays;
+
+public class LatencyMeter {
+
+    private final float[] samples;
+    private final float[] sorted;
+    private int cursor = 0;
+    private int filled = 0;
+    private long pending = 0L;
+    private float last, p50, p95, max;
+
+    public LatencyMeter(int window) {
+        this.samples = new float[window];
+        this.sorted = new float[window];
+    }
+
+    public void press(long time) {
+        if (pending == 0L || time < pending) pending = time;
+    }
+
+    public boolean isPending() { return pending != 0L; }
+
+    public void presented(long now) {
+        if (pending == 0L) return;
+        last = (now - pending) / 1e6f;
+        pending = 0L;
+        samples[cursor] = last;
+        cursor = (cursor + 1) % samples.length;
+        if (filled < samples.length) filled++;
+    }
+
+    public void refresh() {
+        if (filled == 0) return;
+        System.arraycopy(samples, 0, sorted, 0, filled);
+        Arrays.sort(sorted, 0, filled);
+        p50 = sorted[(filled - 1) / 2];
+        p95 = sorted[(int) ((filled - 1) * 0.95f)];
+        max = sorted[filled - 1];
+    }
+
+    public void clear() {
+        cursor = 0;
+        filled = 0;
+        pending = 0L;
+        last = p50 = p95 = max = 0f;
+    }
+
+    public int getCount() { return filled; }
+    public float getLast() { return last; }
+    public float getP50() { return p50; }
+    public float getP95() { return p95; }
+    public float getMax() { return max; }
+}
@@ -0,0 +1,62 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.Color;
+
+public class LevelData {
+
+    public static class Stage {
+        public final float startX;
+        public final Color clearColor;
+        public final Heightfield terrain;
+        public final Layer[] layers;
+
+        Stage(float startX, Color clearColor, Heightfield terrain, Layer[] layers) {
+            this.startX = startX;
+            this.clearColor = clearColor;
+            this.terrain = terrain;
+            this.layers = layers;
+        }
+    }
+
+    public static class Layer {
+        public final String region;
+        public final float factor;
+        public final float y;
+        public final int tileWidth;
+
+        Layer(String region, float factor, float y, int tileWidth) {
+            this.region = region;
+            this.factor = factor;
+            this.y = y;
+            this.tileWidth = tileWidth;
+        }
+    }
+
+    float spacing;
+    float clearX;
+    float firstIntervalMin, firstIntervalMax;
+    float intervalMin, intervalMax;
+    float spawnAhead;
+    float rampDistance;
+    float minGapStart, minGapEnd;
+    float maxGapStart, maxGapEnd;
+    Stage[] stages;
+
+    LevelData() {
+    }
+
+    public int getStageCount() { return stages.length; }
+    public Stage getStage(int level) { return stages[level - 1]; }
+    public float getSpacing() { return spacing; }
+    public float getClearX() { return clearX; }
+    public float getFirstIntervalMin() { return firstIntervalMin; }
+    public float getFirstIntervalMax() { return firstIntervalMax; }
+    public float getIntervalMin() { return intervalMin; }
+    public float getIntervalMax() { return intervalMax; }
+    public float getSpawnAhead() { return spawnAhead; }
+    public float getRampDistance() { return rampDistance; }
+    public float getMinGapStart() { return minGapStart; }
+    public float getMinGapEnd() { return minGapEnd; }
+    public float getMaxGapStart() { return maxGapStart; }
+    public float getMaxGapEnd() { return maxGapEnd; }
+}
@@ -0,0 +1,239 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+public class LevelLoader {
+
+    public static final String CAMPAIGN = "levels/campaign.json";
+
+    private static final int MAGIC = 0x4E4F4D4C;
+    private static final int VERSION = 3;
+    private static final float POLL_SECONDS = 1f;
+
+    private final FileHandle source;
+    private final FileHandle cache;
+    private LevelData data;
+    private long stamp;
+    private float pollTimer = 0f;
+    private boolean hotReload = false;
+
+    public LevelLoader(FileHandle source, FileHandle cache) {
+        this.source = source;
+        this.cache = cache;
+    }
+
+    public LevelData get() {
+        if (data == null) load();
+        return data;
+    }
+
+    public LevelData load() {
+        stamp = stamp(source);
+        LevelData cached = cache != null && cache.exists() ? read(cache, stamp) : null;
+        if (cached != null) {
+            data = cached;
+            return data;
+        }
+        data = parse(source);
+        if (cache != null) write(data, stamp, cache);
+        return data;
+    }
+
+    public void setHotReload(boolean hotReload) { this.hotReload = hotReload; }
+
+    public boolean poll(float delta) {
+        if (!hotReload) return false;
+        pollTimer += delta;
+        if (pollTimer < POLL_SECONDS) return false;
+        pollTimer = 0f;
+        if (stamp(source) == stamp) return false;
+        try {
+            load();
+        } catch (RuntimeException e) {
+            if (Gdx.app != null) Gdx.app.error("LevelLoader", "Could not reload " + source.path() + ", keeping previous levels", e);
+            return false;
+        }
+        return true;
+    }
+
+    public static LevelData loadFile(String path) {
+        return parse(new FileHandle(path));
+    }
+
+    private static long stamp(FileHandle file) {
+        CRC32 crc = new CRC32();
+        crc.update(file.readBytes());
+        return crc.getValue();
+    }
+
+    static LevelData parse(FileHandle file) {
+        JsonValue root = new JsonReader().parse(file);
+        LevelData d = new LevelData();
+        d.spacing = root.getFloat("spacing");
+        d.clearX = root.getFloat("clearX");
+        JsonValue spawn = root.get("spawn");
+        float[] first = spawn.get("firstInterval").asFloatArray();
+        float[] interval = spawn.get("interval").asFloatArray();
+        float[] minGap = spawn.get("minGap").asFloatArray();
+        float[] maxGap = spawn.get("maxGap").asFloatArray();
+        d.firstIntervalMin = first[0];
+        d.firstIntervalMax = first[1];
+        d.intervalMin = interval[0];
+        d.intervalMax = interval[1];
+        d.spawnAhead = spawn.getFloat("ahead");
+        d.rampDistance = spawn.getFloat("rampDistance");
+        d.minGapStart = minGap[0];
+        d.minGapEnd = minGap[1];
+        d.maxGapStart = maxGap[0];
+        d.maxGapEnd = maxGap[1];
+        JsonValue stages = root.get("stages");
+        d.stages = new LevelData.Stage[stages.size];
+        int i = 0;
+        for (JsonValue stage = stages.child; stage != null; stage = stage.next) {
+            float[] c = stage.get("clearColor").asFloatArray();
+            d.stages[i++] = new LevelData.Stage(
+                stage.getFloat("startX"),
+                new Color(c[0], c[1], c[2], 1f),
+                Heightfield.fromPoints(stage.get("terrain").asFloatArray(), d.spacing),
+                parseLayers(stage.get("parallax"))
+            );
+        }
+        return d;
+    }
+
+    private static LevelData.Layer[] parseLayers(JsonValue parallax) {
+        if (parallax == null) return new LevelData.Layer[0];
+        LevelData.Layer[] layers = new LevelData.Layer[parallax.size];
+        int i = 0;
+        for (JsonValue layer = parallax.child; layer != null; layer = layer.next) {
+            layers[i++] = new LevelData.Layer(
+                layer.getString("region"),
+                layer.getFloat("factor"),
+                layer.getFloat("y"),
+                layer.getInt("tileWidth")
+            );
+        }
+        return layers;
+    }
+
+    static void write(LevelData d, long stamp, FileHandle file) {
+        try {
+            SaveStore.writeAtomic(file.file(), encode(d, stamp));
+        } catch (IOException e) {
+            if (Gdx.app != null) Gdx.app.error("LevelLoader", "Could not write level cache " + file.path(), e);
+        }
+    }
+
+    private static byte[] encode(LevelData d, long stamp) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(stamp);
+            out.writeFloat(d.spacing);
+            out.writeFloat(d.clearX);
+            out.writeFloat(d.firstIntervalMin);
+            out.writeFloat(d.firstIntervalMax);
+            out.writeFloat(d.intervalMin);
+            out.writeFloat(d.intervalMax);
+            out.writeFloat(d.spawnAhead);
+            out.writeFloat(d.rampDistance);
+            out.writeFloat(d.minGapStart);
+            out.writeFloat(d.minGapEnd);
+            out.writeFloat(d.maxGapStart);
+            out.writeFloat(d.maxGapEnd);
+            out.writeInt(d.stages.length);
+            for (LevelData.Stage stage : d.stages) {
+                out.writeFloat(stage.startX);
+                out.writeFloat(stage.clearColor.r);
+                out.writeFloat(stage.clearColor.g);
+                out.writeFloat(stage.clearColor.b);
+                Heightfield terrain = stage.terrain;
+                out.writeFloat(terrain.getOriginX());
+                out.writeInt(terrain.getSampleCount());
+                for (int i = 0; i < terrain.getSampleCount(); i++) out.writeFloat(terrain.getSample(i));
+                out.writeInt(stage.layers.length);
+                for (LevelData.Layer layer : stage.layers) {
+                    byte[] region = layer.region.getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(region.length);
+                    out.write(region);
+                    out.writeFloat(layer.factor);
+                    out.writeFloat(layer.y);
+                    out.writeInt(layer.tileWidth);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static LevelData read(FileHandle file, long stamp) {
+        ByteBuffer buf;
+        try {
+            buf = file.map();
+        } catch (GdxRuntimeException e) {
+            buf = ByteBuffer.wrap(file.readBytes());
+        }
+        buf.order(ByteOrder.BIG_ENDIAN);
+        try {
+            return read(buf, stamp);
+        } catch (BufferUnderflowException e) {
+            if (Gdx.app != null) Gdx.app.error("LevelLoader", "Corrupt level cache " + file.path() + ", recompiling");
+            return null;
+        }
+    }
+
+    private static int count(ByteBuffer buf, int min, int elementBytes) {
+        int n = buf.getInt();
+        if (n < min || (long) n * elementBytes > buf.remaining()) throw new BufferUnderflowException();
+        return n;
+    }
+
+    private static LevelData read(ByteBuffer buf, long stamp) {
+        if (buf.remaining() < 16 || buf.getInt() != MAGIC || buf.getInt() != VERSION || buf.getLong() != stamp)
+            return null;
+        LevelData d = new LevelData();
+        d.spacing = buf.getFloat();
+        d.clearX = buf.getFloat();
+        d.firstIntervalMin = buf.getFloat();
+        d.firstIntervalMax = buf.getFloat();
+        d.intervalMin = buf.getFloat();
+        d.intervalMax = buf.getFloat();
+        d.spawnAhead = buf.getFloat();
+        d.rampDistance = buf.getFloat();
+        d.minGapStart = buf.getFloat();
+        d.minGapEnd = buf.getFloat();
+        d.maxGapStart = buf.getFloat();
+        d.maxGapEnd = buf.getFloat();
+        d.stages = new LevelData.Stage[count(buf, 1, 28)];
+        for (int i = 0; i < d.stages.length; i++) {
+            float startX = buf.getFloat();
+            Color color = new Color(buf.getFloat(), buf.getFloat(), buf.getFloat(), 1f);
+            float originX = buf.getFloat();
+            float[] samples = new float[count(buf, 2, 4)];
+            buf.asFloatBuffer().get(samples);
+            buf.position(buf.position() + samples.length * 4);
+            LevelData.Layer[] layers = new LevelData.Layer[count(buf, 0, 14)];
+            for (int l = 0; l < layers.length; l++) {
+                byte[] region = new byte[buf.getShort() & 0xFFFF];
+                buf.get(region);
+                layers[l] = new LevelData.Layer(new String(region, StandardCharsets.UTF_8), buf.getFloat(), buf.getFloat(), buf.getInt());
+            }
+            d.stages[i] = new LevelData.Stage(startX, color, new Heightfield(originX, d.spacing, samples), layers);
+        }
+        return d;
+    }
+}
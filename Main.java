@@ -1,25 +1,46 @@
 package io.nom.jbnu;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.controllers.Controllers;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 public class Main extends Game {
     public SpriteBatch batch;
+    public Assets assets;
+    public LevelLoader levels;
+    public InputQueue input;
+    public SaveStore saves;
 
     @Override
     public void create() {
-        batch = new SpriteBatch();
-        setScreen(new MenuScreen(this));
+        batch = new SpriteBatch(8191);
+        assets = new Assets();
+        input = new InputQueue();
+        Gdx.input.setInputProcessor(input);
+        Controllers.addListener(input.getGamepadListener());
+        saves = new SaveStore(Gdx.files.local("save.bin"));
+        levels = new LevelLoader(Gdx.files.internal(LevelLoader.CAMPAIGN), Gdx.files.local("cache/campaign.bin"));
+        levels.setHotReload(Gdx.app.getType() == Application.ApplicationType.Desktop && Boolean.getBoolean("jbnu.dev"));
+        levels.load();
+        MenuScreen menu = new MenuScreen(this);
+        assets.finishLoading();
+        setScreen(menu);
     }
 
     @Override
     public void render() {
+        assets.update();
         super.render();
+        input.endFrame();
     }
 
     @Override
     public void dispose() {
         batch.dispose();
         getScreen().dispose();
+        assets.dispose();
+        saves.close();
     }
 }
@@ -3,54 +3,119 @@ package io.nom.jbnu;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.audio.Music;
 
 public class MenuScreen implements Screen {
+    private static final float WIDTH = 1280f;
+    private static final float HEIGHT = 720f;
+
     private final Main game;
+    private final OrthographicCamera cam = new OrthographicCamera();
+    private final FitViewport viewport = new FitViewport(WIDTH, HEIGHT, cam);
     private final SpriteBatch batch;
-    private final Texture logo;
-    private final Texture background;
+    private Texture logo;
+    private Texture background;
     private final BitmapFont font;
     private Music menuMusic;
+    private StoryScreen next;
+    private GameScreen directGame;
+    private SettingScreen settings;
+    private boolean starting = false;
+    private volatile Replay lastReplay;
+    private String bestText = "";
 
     public MenuScreen(Main game) {
         this.game = game;
         this.batch = game.batch;
-        this.logo = new Texture("logo.png");
-        this.background = new Texture("menu_bg.png");
         this.font = new BitmapFont();
+        game.assets.acquire(Assets.Group.MENU);
     }
 
     @Override
     public void render(float delta) {
+        if (settings != null) {
+            renderSettings(delta);
+            return;
+        }
         ScreenUtils.clear(1f, 1f, 1f, 1f);
-        float screenWidth = Gdx.graphics.getWidth();
-        float screenHeight = Gdx.graphics.getHeight();
+        viewport.apply();
+        batch.setProjectionMatrix(cam.combined);
         batch.begin();
-        batch.draw(background, 0, 0, screenWidth, screenHeight);
-        float logoX = (Gdx.graphics.getWidth() - logo.getWidth()) / 2f;
-        float logoY = Gdx.graphics.getHeight() / 2f + 40;
+        batch.draw(background, 0, 0, WIDTH, HEIGHT);
+        float logoX = (WIDTH - logo.getWidth()) / 2f;
+        float logoY = HEIGHT / 2f + 40;
         batch.draw(logo, logoX, logoY);
         font.getData().setScale(2f);
         String startText = "PRESS SPACE TO START";
-        font.draw(batch, startText, screenWidth / 2f - 200, screenHeight / 2f - 100);
+        font.draw(batch, startText, WIDTH / 2f - 200, HEIGHT / 2f - 100);
+        font.draw(batch, "PRESS E FOR ENDLESS", WIDTH / 2f - 190, HEIGHT / 2f - 150);
+        Replay replay = lastReplay;
+        if (replay != null) font.draw(batch, "PRESS R TO WATCH LAST RUN", WIDTH / 2f - 240, HEIGHT / 2f - 200);
+        font.draw(batch, bestText, WIDTH / 2f - 260, HEIGHT / 2f - 250);
+        font.draw(batch, "PRESS S FOR SETTINGS", WIDTH / 2f - 200, HEIGHT / 2f - 300);
         batch.end();
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+        if (!starting && directGame == null && game.input.isJustPressed(Input.Keys.S)) {
+            settings = new SettingScreen(batch, game.saves);
+            settings.show();
+            return;
+        }
+        if (directGame == null && game.input.isJustPressed(Input.Keys.SPACE)) starting = true;
+        if (!starting && directGame == null && game.input.isJustPressed(Input.Keys.E)) directGame = new GameScreen(game, true);
+        if (!starting && directGame == null && replay != null && game.input.isJustPressed(Input.Keys.R))
+            directGame = new GameScreen(game, replay);
+        if (starting && next.isReady()) {
             menuMusic.stop();
-            game.setScreen(new StoryScreen(game));
+            game.setScreen(next);
+            dispose();
+        } else if (directGame != null && directGame.isReady()) {
+            menuMusic.stop();
+            game.setScreen(directGame);
+            next.dispose();
+            dispose();
         }
     }
 
+    private void renderSettings(float delta) {
+        viewport.apply();
+        batch.setProjectionMatrix(cam.combined);
+        boolean open = settings.render(delta);
+        menuMusic.setVolume(0.5f * settings.getVolume());
+        if (open) return;
+        settings.dispose();
+        settings = null;
+    }
+
     @Override
     public void show() {
-        menuMusic = Gdx.audio.newMusic(Gdx.files.internal("menu.mp3"));
+        logo = game.assets.get("logo.png", Texture.class);
+        background = game.assets.get("menu_bg.png", Texture.class);
+        menuMusic = game.assets.get("menu.mp3", Music.class);
         menuMusic.setLooping(true);
-        menuMusic.setVolume(0.5f);
+        menuMusic.setVolume(0.5f * game.saves.getFloat(SaveStore.MUSIC_VOLUME, 1f));
         menuMusic.play();
+        if (next == null) next = new StoryScreen(game);
+        lastReplay = null;
+        game.saves.execute(this::loadReplay);
+        bestText = "BEST " + (int) game.saves.getFloat(SaveStore.BEST_CAMPAIGN, 0f)
+            + "   ENDLESS " + (int) game.saves.getFloat(SaveStore.BEST_ENDLESS, 0f);
+    }
+
+    private void loadReplay() {
+        FileHandle file = Replay.latest();
+        if (file == null) return;
+        try {
+            lastReplay = Replay.read(file);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("MenuScreen", "Could not read replay " + file.path(), e);
+        }
     }
 
     @Override
@@ -60,10 +125,15 @@ public class MenuScreen implements Screen {
 
     @Override
     public void dispose() {
-        if (menuMusic != null) menuMusic.dispose();
+        if (settings != null) settings.dispose();
+        font.dispose();
+        game.assets.release(Assets.Group.MENU);
     }
 
-    @Override public void resize(int width, int height) {}
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
     @Override public void pause() {}
     @Override public void resume() {}
 }
@@ -0,0 +1,121 @@
+package io.nom.jbnu;
+
+public class ObstacleStore {
+
+    private static final float REBASE_SCROLL = 8192f;
+
+    float[] baseX;
+    float[] w;
+    float[] h;
+    int[] type;
+
+    private int head = 0;
+    private int size = 0;
+    private int mask;
+
+    private float scroll = 0f;
+    private float prevScroll = 0f;
+    private float maxWidth = 0f;
+
+    public ObstacleStore(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        allocate(cap);
+    }
+
+    private void allocate(int cap) {
+        baseX = new float[cap];
+        w = new float[cap];
+        h = new float[cap];
+        type = new int[cap];
+        mask = cap - 1;
+    }
+
+    public void add(float px, float pw, float ph, int t) {
+        if (size == baseX.length) grow();
+        int s = (head + size) & mask;
+        baseX[s] = px + scroll;
+        w[s] = pw;
+        h[s] = ph;
+        type[s] = t;
+        maxWidth = Math.max(maxWidth, pw);
+        size++;
+    }
+
+    public void advance(float dx) {
+        prevScroll = scroll;
+        scroll += dx;
+        if (scroll > REBASE_SCROLL) rebase();
+    }
+
+    public void shift(float dx) {
+        scroll += dx;
+        prevScroll += dx;
+        if (scroll > REBASE_SCROLL) rebase();
+    }
+
+    private void rebase() {
+        float shift = scroll;
+        for (int i = 0; i < size; i++) baseX[(head + i) & mask] -= shift;
+        prevScroll -= shift;
+        scroll = 0f;
+    }
+
+    public void removeFirst() {
+        if (size == 0) return;
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        scroll = 0f;
+        prevScroll = 0f;
+        maxWidth = 0f;
+    }
+
+    public int size() { return size; }
+
+    public int slot(int i) { return (head + i) & mask; }
+
+    public float x(int slot) { return baseX[slot] - scroll; }
+
+    public float interpolatedX(int slot, float alpha) {
+        return baseX[slot] - (prevScroll + (scroll - prevScroll) * alpha);
+    }
+
+    public float getMaxWidth() { return maxWidth; }
+
+    public int lowerBound(float x) {
+        return lowerBoundBase(x + scroll);
+    }
+
+    public int lowerBound(float x, float alpha) {
+        return lowerBoundBase(x + prevScroll + (scroll - prevScroll) * alpha);
+    }
+
+    private int lowerBoundBase(float key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (baseX[(head + mid) & mask] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void grow() {
+        float[] ob = baseX, ow = w, oh = h;
+        int[] ot = type;
+        int oldMask = mask;
+        allocate(baseX.length * 2);
+        for (int i = 0; i < size; i++) {
+            int s = (head + i) & oldMask;
+            baseX[i] = ob[s];
+            w[i] = ow[s];
+            h[i] = oh[s];
+            type[i] = ot[s];
+        }
+        head = 0;
+    }
+}
@@ -0,0 +1,86 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+public class Parallax {
+
+    private final TextureAtlas atlas;
+    private final ObjectIntMap<String> sheetIds = new ObjectIntMap<>();
+    private final Array<TextureRegion> sheets = new Array<>();
+
+    private final long[] keys;
+    private final int[] stamps;
+    private final TextureRegion[] tiles;
+    private int clock = 0;
+
+    private int tilesDrawn;
+    private int misses;
+
+    public Parallax(TextureAtlas atlas, int cacheSize) {
+        this.atlas = atlas;
+        this.keys = new long[cacheSize];
+        this.stamps = new int[cacheSize];
+        this.tiles = new TextureRegion[cacheSize];
+    }
+
+    public void draw(SpriteBatch batch, LevelData.Layer[] layers, int count, double originX, float left, float width) {
+        clock++;
+        tilesDrawn = 0;
+        float right = left + width;
+        for (int l = 0; l < count; l++) {
+            LevelData.Layer layer = layers[l];
+            int sheetId = sheet(layer.region);
+            if (sheetId < 0) continue;
+            TextureRegion sheet = sheets.get(sheetId);
+            int tileWidth = layer.tileWidth;
+            int columns = Math.max(1, sheet.getRegionWidth() / tileWidth);
+            double scroll = (originX + left) * layer.factor;
+            long first = (long) Math.floor(scroll / tileWidth);
+            float x = (float) (left - (scroll - first * (double) tileWidth));
+            for (long i = first; x < right; i++, x += tileWidth) {
+                batch.draw(tile(sheetId, sheet, (int) Math.floorMod(i, (long) columns), tileWidth), x, layer.y);
+                tilesDrawn++;
+            }
+        }
+    }
+
+    private int sheet(String name) {
+        int id = sheetIds.get(name, -2);
+        if (id != -2) return id;
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) {
+            Gdx.app.error("Parallax", "Missing atlas region: " + name);
+            sheetIds.put(name, -1);
+            return -1;
+        }
+        sheetIds.put(name, sheets.size);
+        sheets.add(region);
+        return sheets.size - 1;
+    }
+
+    private TextureRegion tile(int sheetId, TextureRegion sheet, int column, int tileWidth) {
+        long key = ((long) sheetId << 32 | column) + 1;
+        int oldest = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                stamps[i] = clock;
+                return tiles[i];
+            }
+            if (stamps[i] < stamps[oldest]) oldest = i;
+        }
+        misses++;
+        if (tiles[oldest] == null) tiles[oldest] = new TextureRegion();
+        tiles[oldest].setRegion(sheet, column * tileWidth, 0, Math.min(tileWidth, sheet.getRegionWidth()), sheet.getRegionHeight());
+        keys[oldest] = key;
+        stamps[oldest] = clock;
+        return tiles[oldest];
+    }
+
+    public int getTilesDrawn() { return tilesDrawn; }
+    public int getMisses() { return misses; }
+}
@@ -0,0 +1,177 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.NumberUtils;
+
+public class ParticleSystem {
+
+    public static final int DUST = 0;
+    public static final int DEBRIS = 1;
+    public static final int CONFETTI = 2;
+
+    private static final int VERTEX_FLOATS = 20;
+    private static final int[] CONFETTI_COLORS = {
+        abgr(240, 70, 70), abgr(250, 200, 60), abgr(80, 200, 120), abgr(70, 150, 240), abgr(200, 90, 220)
+    };
+    private static final int DUST_COLOR = abgr(200, 180, 140);
+    private static final int[] DEBRIS_COLORS = {abgr(90, 80, 70), abgr(140, 120, 100)};
+
+    final float[] x, y, vx, vy, age, life, size, gravity;
+    final int[] color;
+    private final int capacity;
+    private int count = 0;
+    private float density = 1f;
+    private final float[] vertices;
+    private final RandomXS128 random = new RandomXS128(0x5EEDL);
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new float[capacity];
+        life = new float[capacity];
+        size = new float[capacity];
+        gravity = new float[capacity];
+        color = new int[capacity];
+        vertices = new float[capacity * VERTEX_FLOATS];
+    }
+
+    private static int abgr(int r, int g, int b) {
+        return (b << 16) | (g << 8) | r;
+    }
+
+    public void emit(int preset, float px, float py, int n) {
+        n = (int) Math.ceil(n * density);
+        for (int k = 0; k < n && count < capacity; k++) {
+            int i = count++;
+            x[i] = px;
+            y[i] = py;
+            age[i] = 0f;
+            switch (preset) {
+                case DUST:
+                    vx[i] = range(-70f, 40f);
+                    vy[i] = range(15f, 80f);
+                    gravity[i] = -80f;
+                    life[i] = range(0.35f, 0.7f);
+                    size[i] = range(4f, 9f);
+                    color[i] = DUST_COLOR;
+                    break;
+                case DEBRIS:
+                    vx[i] = range(-260f, 200f);
+                    vy[i] = range(120f, 420f);
+                    gravity[i] = -1100f;
+                    life[i] = range(0.6f, 1.2f);
+                    size[i] = range(3f, 7f);
+                    color[i] = DEBRIS_COLORS[random.nextInt(DEBRIS_COLORS.length)];
+                    break;
+                default:
+                    vx[i] = range(-320f, 320f);
+                    vy[i] = range(150f, 650f);
+                    gravity[i] = -260f;
+                    life[i] = range(2f, 3.5f);
+                    size[i] = range(6f, 10f);
+                    color[i] = CONFETTI_COLORS[random.nextInt(CONFETTI_COLORS.length)];
+                    break;
+            }
+        }
+    }
+
+    private float range(float min, float max) {
+        return min + random.nextFloat() * (max - min);
+    }
+
+    public void update(float delta) {
+        if (delta == 0f || count == 0) return;
+        integrate(0, count, delta);
+        compact();
+    }
+
+    private void integrate(int from, int to, float delta) {
+        float[] x = this.x, y = this.y, vx = this.vx, vy = this.vy, age = this.age, gravity = this.gravity;
+        for (int i = from; i < to; i++) {
+            vy[i] += gravity[i] * delta;
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+            age[i] += delta;
+        }
+    }
+
+    private void compact() {
+        int i = 0;
+        while (i < count) {
+            if (age[i] < life[i]) {
+                i++;
+                continue;
+            }
+            int last = --count;
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            age[i] = age[last];
+            life[i] = life[last];
+            size[i] = size[last];
+            gravity[i] = gravity[last];
+            color[i] = color[last];
+        }
+    }
+
+    public int buildVertices(TextureRegion region) {
+        float u = region.getU(), v = region.getV(), u2 = region.getU2(), v2 = region.getV2();
+        float[] out = vertices;
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            float half = size[i] * 0.5f;
+            float x1 = x[i] - half, y1 = y[i] - half;
+            float x2 = x1 + size[i], y2 = y1 + size[i];
+            int alpha = (int) (254f * (1f - age[i] / life[i]));
+            float c = NumberUtils.intToFloatColor((alpha << 24) | color[i]);
+            out[o] = x1;
+            out[o + 1] = y1;
+            out[o + 2] = c;
+            out[o + 3] = u;
+            out[o + 4] = v2;
+            out[o + 5] = x1;
+            out[o + 6] = y2;
+            out[o + 7] = c;
+            out[o + 8] = u;
+            out[o + 9] = v;
+            out[o + 10] = x2;
+            out[o + 11] = y2;
+            out[o + 12] = c;
+            out[o + 13] = u2;
+            out[o + 14] = v;
+            out[o + 15] = x2;
+            out[o + 16] = y1;
+            out[o + 17] = c;
+            out[o + 18] = u2;
+            out[o + 19] = v2;
+            o += VERTEX_FLOATS;
+        }
+        return o;
+    }
+
+    public void draw(SpriteBatch batch, TextureRegion region) {
+        if (count == 0) return;
+        batch.draw(region.getTexture(), vertices, 0, buildVertices(region));
+    }
+
+    public void shift(float dx) {
+        for (int i = 0; i < count; i++) x[i] -= dx;
+    }
+
+    public void setDensity(float density) {
+        this.density = density;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() { return count; }
+    public int getCapacity() { return capacity; }
+}
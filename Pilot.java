@@ -0,0 +1,62 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+public interface Pilot {
+
+    boolean wantsJump(GameWorld world, float delta);
+
+    class Lookahead implements Pilot {
+        private final float triggerDistance;
+        private final float jitter;
+        private final RandomXS128 random;
+        private float nextTrigger;
+
+        public Lookahead(float triggerDistance, float jitter, long seed) {
+            this.triggerDistance = triggerDistance;
+            this.jitter = jitter;
+            this.random = new RandomXS128(seed);
+            this.nextTrigger = roll();
+        }
+
+        private float roll() {
+            return triggerDistance + (random.nextFloat() * 2f - 1f) * jitter;
+        }
+
+        @Override
+        public boolean wantsJump(GameWorld world, float delta) {
+            Runner runner = world.runner;
+            if (runner.isCrashed() || runner.getState() == Runner.State.JUMP) return false;
+            ObstacleStore obstacles = world.obstacles;
+            float front = runner.getX() + 64f;
+            for (int i = obstacles.lowerBound(front - obstacles.getMaxWidth()); i < obstacles.size(); i++) {
+                int s = obstacles.slot(i);
+                float gap = obstacles.x(s) - front;
+                if (gap < -obstacles.w[s]) continue;
+                if (gap <= nextTrigger) {
+                    nextTrigger = roll();
+                    return true;
+                }
+                return false;
+            }
+            return false;
+        }
+    }
+
+    class Interval implements Pilot {
+        private final float period;
+        private float timer = 0f;
+
+        public Interval(float period) {
+            this.period = period;
+        }
+
+        @Override
+        public boolean wantsJump(GameWorld world, float delta) {
+            timer += delta;
+            if (timer < period) return false;
+            timer -= period;
+            return true;
+        }
+    }
+}
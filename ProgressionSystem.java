@@ -0,0 +1,12 @@
+package io.nom.jbnu;
+
+public class ProgressionSystem {
+
+    private static final int REBASE_CHUNKS = 16;
+
+    public void update(GameWorld world, float delta) {
+        float nextLevelX = world.getNextLevelX();
+        if (nextLevelX == nextLevelX && world.getCamX() > nextLevelX) world.advanceLevel();
+        if (world.isEndless() && world.runner.getX() > REBASE_CHUNKS * EndlessTerrain.CHUNK_WIDTH) world.rebase();
+    }
+}
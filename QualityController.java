@@ -0,0 +1,70 @@
+package io.nom.jbnu;
+
+public class QualityController {
+
+    private static final float[] RENDER_SCALES = {0.5f, 0.6f, 0.7f, 0.85f, 1f};
+    private static final float[] PARTICLE_DENSITIES = {0.25f, 0.5f, 0.5f, 1f, 1f};
+    private static final int[] BACKGROUND_LAYERS = {1, 2, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+
+    private static final int WINDOW = 60;
+    private static final float LOWER_MARGIN = 1.15f;
+    private static final float RAISE_MARGIN = 1.05f;
+    private static final float HITCH_SECONDS = 0.25f;
+    private static final int RAISE_WINDOWS = 4;
+    private static final int MAX_RAISE_WINDOWS = 64;
+    private static final int WARMUP_FRAMES = 30;
+
+    private final float target;
+    private int level;
+
+    private float windowSum = 0f;
+    private int windowFrames = 0;
+    private int warmup = WARMUP_FRAMES;
+    private int goodWindows = 0;
+    private int raiseWindows = RAISE_WINDOWS;
+    private boolean justRaised = false;
+
+    public QualityController(float targetFrameSeconds, int level) {
+        this.target = targetFrameSeconds;
+        this.level = Math.max(0, Math.min(RENDER_SCALES.length - 1, level));
+    }
+
+    public boolean update(float frameSeconds) {
+        if (warmup > 0) {
+            warmup--;
+            return false;
+        }
+        if (frameSeconds > HITCH_SECONDS) return false;
+        windowSum += frameSeconds;
+        if (++windowFrames < WINDOW) return false;
+        float mean = windowSum / windowFrames;
+        windowSum = 0f;
+        windowFrames = 0;
+
+        if (mean > target * LOWER_MARGIN) {
+            if (justRaised) raiseWindows = Math.min(MAX_RAISE_WINDOWS, raiseWindows * 2);
+            justRaised = false;
+            goodWindows = 0;
+            return setLevel(level - 1);
+        }
+        justRaised = false;
+        if (mean > target * RAISE_MARGIN || ++goodWindows < raiseWindows) return false;
+        goodWindows = 0;
+        justRaised = setLevel(level + 1);
+        return justRaised;
+    }
+
+    private boolean setLevel(int next) {
+        next = Math.max(0, Math.min(RENDER_SCALES.length - 1, next));
+        if (next == level) return false;
+        level = next;
+        warmup = WARMUP_FRAMES;
+        return true;
+    }
+
+    public int getLevel() { return level; }
+    public int getLevelCount() { return RENDER_SCALES.length; }
+    public float getRenderScale() { return RENDER_SCALES[level]; }
+    public float getParticleDensity() { return PARTICLE_DENSITIES[level]; }
+    public int getBackgroundLayers() { return BACKGROUND_LAYERS[level]; }
+}
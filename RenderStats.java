@@ -0,0 +1,44 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+public class RenderStats {
+
+    private static final int INDICES_PER_SPRITE = 6;
+
+    private final GLProfiler profiler;
+    private int drawCalls;
+    private int textureBindings;
+    private int batchFlushes;
+    private float spritesPerFlush;
+
+    public RenderStats() {
+        this.profiler = new GLProfiler(Gdx.graphics);
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled) profiler.enable();
+        else profiler.disable();
+    }
+
+    public boolean isEnabled() { return profiler.isEnabled(); }
+
+    public void beginFrame() {
+        if (profiler.isEnabled()) profiler.reset();
+    }
+
+    public void endFrame(int batchRenderCalls) {
+        batchFlushes = batchRenderCalls;
+        if (!profiler.isEnabled()) return;
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        float sprites = profiler.getVertexCount().total / INDICES_PER_SPRITE;
+        spritesPerFlush = drawCalls > 0 ? sprites / drawCalls : 0f;
+    }
+
+    public int getDrawCalls() { return drawCalls; }
+    public int getTextureBindings() { return textureBindings; }
+    public int getBatchFlushes() { return batchFlushes; }
+    public float getSpritesPerFlush() { return spritesPerFlush; }
+}
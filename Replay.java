@@ -0,0 +1,177 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class Replay {
+
+    public static final byte JUMP = 1;
+    public static final byte RESET = 2;
+
+    public static final String DIR = "replays/";
+    public static final String EXTENSION = "nomr";
+    private static final int KEEP = 10;
+
+    private static final int MAGIC = 0x4E4F4D52;
+    private static final int VERSION = 1;
+
+    private final long seed;
+    private final boolean endless;
+    private final IntArray ticks = new IntArray();
+    private final ByteArray commands = new ByteArray();
+    private int endTick;
+    private float endDistance;
+    private int endLives;
+
+    public Replay(long seed, boolean endless) {
+        this.seed = seed;
+        this.endless = endless;
+    }
+
+    public void record(int tick, byte command) {
+        ticks.add(tick);
+        commands.add(command);
+    }
+
+    public void finish(GameWorld world) {
+        endTick = world.getTick();
+        endDistance = world.getDistance();
+        endLives = world.runner.getLives();
+    }
+
+    public boolean matches(GameWorld world) {
+        return world.getTick() == endTick && world.getDistance() == endDistance && world.runner.getLives() == endLives;
+    }
+
+    public static void apply(GameWorld world, byte command) {
+        switch (command) {
+            case JUMP:
+                world.runner.jump();
+                break;
+            case RESET:
+                world.reset();
+                break;
+        }
+    }
+
+    public GameWorld createWorld(LevelData levels) {
+        return new GameWorld(seed, levels, endless);
+    }
+
+    public Player player() {
+        return new Player();
+    }
+
+    public class Player {
+        private int next = 0;
+
+        public byte poll(int tick) {
+            if (next >= ticks.size || ticks.get(next) > tick) return 0;
+            return commands.get(next++);
+        }
+
+        public void applyDue(GameWorld world) {
+            for (byte c; (c = poll(world.getTick())) != 0; ) apply(world, c);
+        }
+
+        public boolean isFinished(int tick) {
+            return next >= ticks.size && tick >= endTick;
+        }
+
+        public Replay getReplay() { return Replay.this; }
+    }
+
+    public long getSeed() { return seed; }
+    public boolean isEndless() { return endless; }
+    public int getEventCount() { return ticks.size; }
+    public int getEndTick() { return endTick; }
+    public float getEndDistance() { return endDistance; }
+    public int getEndLives() { return endLives; }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + ticks.size * 3);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeBoolean(endless);
+            writeVarInt(out, ticks.size);
+            int last = 0;
+            for (int i = 0; i < ticks.size; i++) {
+                writeVarInt(out, ticks.get(i) - last);
+                out.writeByte(commands.get(i));
+                last = ticks.get(i);
+            }
+            writeVarInt(out, endTick);
+            out.writeFloat(endDistance);
+            out.writeByte(endLives);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not encode replay", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Replay read(FileHandle file) {
+        try (DataInputStream in = new DataInputStream(file.read(1024))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION)
+                throw new GdxRuntimeException("Not a replay file: " + file.path());
+            Replay replay = new Replay(in.readLong(), in.readBoolean());
+            int count = readVarInt(in);
+            int tick = 0;
+            for (int i = 0; i < count; i++) {
+                tick += readVarInt(in);
+                replay.record(tick, in.readByte());
+            }
+            replay.endTick = readVarInt(in);
+            replay.endDistance = in.readFloat();
+            replay.endLives = in.readByte();
+            return replay;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read replay " + file.path(), e);
+        }
+    }
+
+    public static FileHandle newFile() {
+        return Gdx.files.local(DIR + System.currentTimeMillis() + "." + EXTENSION);
+    }
+
+    public static FileHandle latest() {
+        FileHandle[] files = Gdx.files.local(DIR).list("." + EXTENSION);
+        if (files.length == 0) return null;
+        Arrays.sort(files, (a, b) -> a.name().compareTo(b.name()));
+        return files[files.length - 1];
+    }
+
+    public static void prune() {
+        FileHandle[] files = Gdx.files.local(DIR).list("." + EXTENSION);
+        if (files.length <= KEEP) return;
+        Arrays.sort(files, (a, b) -> a.name().compareTo(b.name()));
+        for (int i = 0; i < files.length - KEEP; i++) files[i].delete();
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.files.FileHandle;
+
+public class ReplayRunner {
+
+    private static final String LEVELS_PATH = "assets/" + LevelLoader.CAMPAIGN;
+
+    public static GameWorld run(Replay replay, LevelData levels) {
+        GameWorld world = replay.createWorld(levels);
+        Replay.Player player = replay.player();
+        while (true) {
+            player.applyDue(world);
+            if (world.isGameOver() || player.isFinished(world.getTick())) break;
+            world.step(GameWorld.STEP);
+        }
+        return world;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: ReplayRunner <replay." + Replay.EXTENSION + "> [repeat] [levels.json]");
+            return;
+        }
+        Replay replay = Replay.read(new FileHandle(args[0]));
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        LevelData levels = LevelLoader.loadFile(args.length > 2 ? args[2] : LEVELS_PATH);
+
+        GameWorld world = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) world = run(replay, levels);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ticks = (long) world.getTick() * repeat;
+        System.out.printf("seed=%d endless=%b events=%d ticks=%d%n",
+            replay.getSeed(), replay.isEndless(), replay.getEventCount(), world.getTick());
+        System.out.printf("distance=%.1f lives=%d (recorded %.1f / %d) %s%n",
+            world.getDistance(), world.runner.getLives(), replay.getEndDistance(), replay.getEndLives(),
+            replay.matches(world) ? "MATCH" : "DESYNC");
+        System.out.printf("time=%.3fs %.0f ticks/s (%.0fx real time)%n",
+            seconds, ticks / seconds, ticks * GameWorld.STEP / seconds);
+    }
+}
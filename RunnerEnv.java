@@ -0,0 +1,118 @@
+package io.nom.jbnu;
+
+public class RunnerEnv implements GameWorld.Listener {
+
+    public static final int ACTION_NONE = 0;
+    public static final int ACTION_JUMP = 1;
+
+    public static final int NEXT_OBSTACLES = 3;
+    public static final int OBSERVATION_SIZE = 6 + NEXT_OBSTACLES * 3;
+
+    private static final float PROGRESS_SCALE = 0.01f;
+    private static final float CRASH_PENALTY = 1f;
+    private static final float CLEAR_BONUS = 10f;
+    private static final float FAR = 1000f;
+    private static final float SLOPE_PROBE = 128f;
+
+    private final LevelData levels;
+    private final boolean endless;
+    private final int frameSkip;
+    private final int maxTicks;
+    private GameWorld world;
+    private int crashes;
+    private int episodeTicks;
+    private float lastDistance;
+    private float episodeReturn;
+    private boolean done;
+
+    public RunnerEnv(LevelData levels, boolean endless, int frameSkip, float maxSeconds) {
+        this.levels = levels;
+        this.endless = endless;
+        this.frameSkip = frameSkip;
+        this.maxTicks = (int) (maxSeconds / GameWorld.STEP);
+    }
+
+    public void reset(long seed) {
+        if (world == null) {
+            world = new GameWorld(seed, levels, endless);
+            world.setListener(this);
+        } else {
+            world.reset(seed);
+        }
+        begin();
+    }
+
+    public void reset() {
+        world.reset();
+        begin();
+    }
+
+    private void begin() {
+        crashes = 0;
+        episodeTicks = 0;
+        lastDistance = world.getDistance();
+        episodeReturn = 0f;
+        done = false;
+    }
+
+    public float step(int action) {
+        if (done) return 0f;
+        if (action == ACTION_JUMP) world.runner.jump();
+        int crashesBefore = crashes;
+        for (int i = 0; i < frameSkip && !done; i++) {
+            world.step(GameWorld.STEP);
+            episodeTicks++;
+            done = world.isGameOver() || world.isLevelCleared() || episodeTicks >= maxTicks;
+        }
+        float distance = world.getDistance();
+        float reward = (distance - lastDistance) * PROGRESS_SCALE - (crashes - crashesBefore) * CRASH_PENALTY;
+        if (world.isLevelCleared()) reward += CLEAR_BONUS;
+        lastDistance = distance;
+        episodeReturn += reward;
+        return reward;
+    }
+
+    public void observe(float[] out, int offset) {
+        Runner runner = world.runner;
+        float x = runner.getX();
+        float ground = world.getGroundHeight(x);
+        out[offset] = (runner.pos.y - ground) / 100f;
+        out[offset + 1] = runner.vel.y / 700f;
+        out[offset + 2] = runner.getState() == Runner.State.JUMP ? 1f : 0f;
+        out[offset + 3] = runner.isCrashed() ? 1f : 0f;
+        out[offset + 4] = runner.getLives() / 3f;
+        out[offset + 5] = (world.getGroundHeight(x + SLOPE_PROBE) - ground) / SLOPE_PROBE;
+
+        ObstacleStore obstacles = world.obstacles;
+        float front = x + 64f;
+        int o = offset + 6;
+        int seen = 0;
+        for (int i = obstacles.lowerBound(x - obstacles.getMaxWidth()); i < obstacles.size() && seen < NEXT_OBSTACLES; i++) {
+            int s = obstacles.slot(i);
+            float ox = obstacles.x(s);
+            if (ox + obstacles.w[s] < x) continue;
+            out[o++] = Math.min(ox - front, FAR) / FAR;
+            out[o++] = obstacles.w[s] / 64f;
+            out[o++] = (world.obstacleY(ox) + obstacles.h[s] - ground) / 100f;
+            seen++;
+        }
+        for (; seen < NEXT_OBSTACLES; seen++) {
+            out[o++] = 1f;
+            out[o++] = 0f;
+            out[o++] = 0f;
+        }
+    }
+
+    @Override
+    public void onCrash() { crashes++; }
+    @Override public void onLevelChanged(int level) {}
+    @Override public void onLevelCleared() {}
+    @Override public void onGameOver() {}
+    @Override public void onOriginShift(float dx) {}
+
+    public boolean isDone() { return done; }
+    public int getCrashes() { return crashes; }
+    public int getEpisodeTicks() { return episodeTicks; }
+    public float getEpisodeReturn() { return episodeReturn; }
+    public GameWorld getWorld() { return world; }
+}
@@ -0,0 +1,33 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.g2d.*;
+
+public class RunnerRenderer {
+
+    private static final Runner.State[] STATES = Runner.State.values();
+
+    private final AnimationGraph graph;
+    private final TextureRegion[][] frames;
+    private final int[] signals = new int[STATES.length];
+    private final int initial;
+
+    public RunnerRenderer(GameSprites sprites) {
+        graph = sprites.animations;
+        frames = sprites.frames;
+        for (int i = 0; i < STATES.length; i++) signals[i] = graph.signal(STATES[i].name());
+        initial = graph.state("run");
+    }
+
+    public AnimationMachine newMachine() {
+        return new AnimationMachine(graph, initial);
+    }
+
+    public void update(AnimationMachine machine, Runner.State state, float delta) {
+        machine.update(delta, signals[state.ordinal()]);
+    }
+
+    public void draw(SpriteBatch batch, AnimationMachine machine, float x, float y) {
+        float drawOffsetY = -15f;
+        batch.draw(frames[machine.getState()][machine.getFrame()], x, y + drawOffsetY);
+    }
+}
@@ -0,0 +1,10 @@
+package io.nom.jbnu;
+
+public class RunnerSystem {
+
+    public void update(GameWorld world, float delta) {
+        Runner runner = world.runner;
+        runner.update(delta, world.getGroundHeight(runner.getX()));
+        world.setCamX(runner.getX() + 300);
+    }
+}
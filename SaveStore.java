@@ -0,0 +1,193 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class SaveStore {
+
+    public static final String BEST_CAMPAIGN = "best.campaign";
+    public static final String BEST_ENDLESS = "best.endless";
+    public static final String RUNS = "stats.runs";
+    public static final String CLEARS = "stats.clears";
+    public static final String JUMPS = "stats.jumps";
+    public static final String CRASHES = "stats.crashes";
+    public static final String TOTAL_DISTANCE = "stats.distance";
+    public static final String MUSIC_VOLUME = "settings.musicVolume";
+    public static final String RENDER_QUALITY = "settings.renderQuality";
+
+    private static final int MAGIC = 0x4E4F4D53;
+    private static final int VERSION = 1;
+    private static final long FLUSH_DELAY_MS = 2000;
+    private static final long CLOSE_TIMEOUT_MS = 3000;
+
+    private final FileHandle file;
+    private final ObjectMap<String, String> values = new ObjectMap<>();
+    private final ScheduledThreadPoolExecutor writer;
+    private boolean dirty = false;
+    private boolean scheduled = false;
+
+    public SaveStore(FileHandle file) {
+        this.file = file;
+        this.writer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "save-writer");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        this.writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        load();
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+        try {
+            decode(file.readBytes());
+        } catch (Exception e) {
+            values.clear();
+            if (Gdx.app != null) Gdx.app.error("SaveStore", "Ignoring unreadable save " + file.path(), e);
+        }
+    }
+
+    public synchronized String getString(String key, String defaultValue) {
+        return values.get(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public float getFloat(String key, float defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Float.parseFloat(value);
+    }
+
+    public synchronized void putString(String key, String value) {
+        if (value.equals(values.put(key, value))) return;
+        dirty = true;
+        if (scheduled) return;
+        scheduled = true;
+        writer.schedule(this::flushValues, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void putInt(String key, int value) { putString(key, Integer.toString(value)); }
+    public void putLong(String key, long value) { putString(key, Long.toString(value)); }
+    public void putFloat(String key, float value) { putString(key, Float.toString(value)); }
+
+    public void add(String key, int amount) { putInt(key, getInt(key, 0) + amount); }
+    public void add(String key, float amount) { putFloat(key, getFloat(key, 0f) + amount); }
+
+    public boolean putMax(String key, float value) {
+        if (value <= getFloat(key, 0f)) return false;
+        putFloat(key, value);
+        return true;
+    }
+
+    public void write(FileHandle target, byte[] data) {
+        writer.execute(() -> {
+            try {
+                writeAtomic(target.file(), data);
+            } catch (IOException e) {
+                if (Gdx.app != null) Gdx.app.error("SaveStore", "Could not write " + target.path(), e);
+            }
+        });
+    }
+
+    public void execute(Runnable task) {
+        writer.execute(task);
+    }
+
+    public void close() {
+        writer.execute(this::flushValues);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushValues() {
+        byte[] data;
+        synchronized (this) {
+            scheduled = false;
+            if (!dirty) return;
+            dirty = false;
+            data = encode();
+        }
+        try {
+            writeAtomic(file.file(), data);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            if (Gdx.app != null) Gdx.app.error("SaveStore", "Could not write save " + file.path(), e);
+        }
+    }
+
+    private byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(values.size);
+            for (ObjectMap.Entry<String, String> e : values.entries()) {
+                out.writeUTF(e.key);
+                out.writeUTF(e.value);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeLong(crc.getValue());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void decode(byte[] data) throws IOException {
+        if (data.length < 20) throw new IOException("Truncated save");
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 8);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a save file");
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) values.put(in.readUTF(), in.readUTF());
+            if (in.readLong() != crc.getValue()) throw new IOException("Checksum mismatch");
+        }
+    }
+
+    static void writeAtomic(File target, byte[] data) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File tmp = new File(target.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(data);
+            out.getFD().sync();
+        }
+        try {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
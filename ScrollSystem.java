@@ -0,0 +1,9 @@
+package io.nom.jbnu;
+
+public class ScrollSystem {
+
+    public void update(GameWorld world, float delta) {
+        world.obstacles.advance(GameWorld.OBSTACLE_SPEED * delta);
+        world.addTravel(GameWorld.OBSTACLE_SPEED * delta);
+    }
+}
@@ -5,35 +5,56 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
 
 public class SettingScreen {
     private final SpriteBatch batch;
     private final BitmapFont font;
+    private final SaveStore saves;
+    private float volume;
+    private String volumeText;
 
-    public SettingScreen(SpriteBatch batch) {
+    public SettingScreen(SpriteBatch batch, SaveStore saves) {
         this.batch = batch;
         this.font = new BitmapFont();
+        this.saves = saves;
+        this.volume = saves.getFloat(SaveStore.MUSIC_VOLUME, 1f);
+        this.volumeText = volumeText(volume);
+    }
+
+    private static String volumeText(float volume) {
+        return "음악 볼륨 (좌/우): " + Math.round(volume * 100) + "%";
     }
 
     public void show() {
         Gdx.app.log("SettingScreen", "환경설정 화면 표시");
     }
 
-    public void render(float delta) {
+    public boolean render(float delta) {
         ScreenUtils.clear(0.1f, 0.1f, 0.15f, 1f);
         batch.begin();
         font.setColor(Color.WHITE);
         font.getData().setScale(2f);
         font.draw(batch, "환경설정 화면입니다", 200, 300);
-        font.draw(batch, "ESC 누르면 돌아갑니다", 200, 250);
+        font.draw(batch, volumeText, 200, 250);
+        font.draw(batch, "ESC 누르면 돌아갑니다", 200, 200);
         batch.end();
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            Gdx.app.exit();
-        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) setVolume(volume - 0.1f);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) setVolume(volume + 0.1f);
+
+        return !Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE);
     }
 
+    private void setVolume(float value) {
+        volume = Math.round(MathUtils.clamp(value, 0f, 1f) * 10) / 10f;
+        volumeText = volumeText(volume);
+        saves.putFloat(SaveStore.MUSIC_VOLUME, volume);
+    }
+
+    public float getVolume() { return volume; }
+
     public void dispose() {
         font.dispose();
     }
@@ -0,0 +1,149 @@
+package io.nom.jbnu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SimulationBatch {
+
+    private static final float MAX_SECONDS = 600f;
+    private static final String LEVELS_PATH = "assets/" + LevelLoader.CAMPAIGN;
+
+    public static class RunResult {
+        public final long seed;
+        public float distance;
+        public int crashes;
+        public int level;
+        public boolean cleared;
+        public int ticks;
+
+        RunResult(long seed) {
+            this.seed = seed;
+        }
+    }
+
+    private static class CrashCounter implements GameWorld.Listener {
+        int crashes;
+        @Override public void onCrash() { crashes++; }
+        @Override public void onLevelChanged(int level) {}
+        @Override public void onLevelCleared() {}
+        @Override public void onGameOver() {}
+        @Override public void onOriginShift(float dx) {}
+    }
+
+    public static RunResult runGame(LevelData levels, long seed, Pilot pilot) {
+        return runGame(levels, seed, pilot, false);
+    }
+
+    public static RunResult runGame(LevelData levels, long seed, Pilot pilot, boolean endless) {
+        GameWorld world = new GameWorld(seed, levels, endless);
+        CrashCounter counter = new CrashCounter();
+        world.setListener(counter);
+        RunResult result = new RunResult(seed);
+        int maxTicks = (int) (MAX_SECONDS / GameWorld.STEP);
+        while (result.ticks < maxTicks && !world.isGameOver() && !world.isLevelCleared()) {
+            if (pilot.wantsJump(world, GameWorld.STEP)) world.runner.jump();
+            world.step(GameWorld.STEP);
+            result.distance = Math.max(result.distance, world.getDistance());
+            result.ticks++;
+        }
+        result.crashes = counter.crashes;
+        result.level = world.getLevel();
+        result.cleared = world.isLevelCleared();
+        return result;
+    }
+
+    public static RunResult[] runAll(int runs, long baseSeed, String pilotName, int threads) throws Exception {
+        return runAll(runs, baseSeed, pilotName, threads, false);
+    }
+
+    public static RunResult[] runAll(int runs, long baseSeed, String pilotName, int threads, boolean endless) throws Exception {
+        LevelData levels = LevelLoader.loadFile(LEVELS_PATH);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RunResult[]>> futures = new ArrayList<>();
+            int chunk = Math.max(1, runs / (threads * 8));
+            for (int start = 0; start < runs; start += chunk) {
+                final int from = start;
+                final int to = Math.min(runs, start + chunk);
+                Callable<RunResult[]> task = () -> {
+                    RunResult[] out = new RunResult[to - from];
+                    for (int i = from; i < to; i++) {
+                        long seed = baseSeed + i;
+                        out[i - from] = runGame(levels, seed, createPilot(pilotName, seed), endless);
+                    }
+                    return out;
+                };
+                futures.add(pool.submit(task));
+            }
+            RunResult[] results = new RunResult[runs];
+            int n = 0;
+            for (Future<RunResult[]> future : futures) {
+                for (RunResult r : future.get()) results[n++] = r;
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static Pilot createPilot(String name, long seed) {
+        switch (name) {
+            case "interval":
+                return new Pilot.Interval(1.2f);
+            case "lookahead":
+            default:
+                return new Pilot.Lookahead(60f, 40f, seed ^ 0x5DEECE66DL);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        String pilot = args.length > 2 ? args[2] : "lookahead";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean endless = args.length > 4 && args[4].equals("endless");
+
+        long start = System.nanoTime();
+        RunResult[] results = runAll(runs, seed, pilot, threads, endless);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(results, pilot, threads, seconds);
+    }
+
+    private static void report(RunResult[] results, String pilot, int threads, double seconds) {
+        int n = results.length;
+        float[] distances = new float[n];
+        long crashes = 0;
+        int cleared = 0;
+        int[] levels = new int[4];
+        for (int i = 0; i < n; i++) {
+            distances[i] = results[i].distance;
+            crashes += results[i].crashes;
+            if (results[i].cleared) cleared++;
+            levels[Math.min(results[i].level, 3)]++;
+        }
+        Arrays.sort(distances);
+        double mean = 0;
+        for (float d : distances) mean += d;
+        mean /= Math.max(1, n);
+
+        System.out.printf("runs=%d pilot=%s threads=%d time=%.2fs (%.0f runs/min)%n",
+            n, pilot, threads, seconds, n / seconds * 60.0);
+        System.out.printf("distance mean=%.0f p10=%.0f p50=%.0f p90=%.0f max=%.0f%n",
+            mean, percentile(distances, 0.10f), percentile(distances, 0.50f),
+            percentile(distances, 0.90f), n > 0 ? distances[n - 1] : 0f);
+        System.out.printf("crashes mean=%.2f total=%d%n", (double) crashes / Math.max(1, n), crashes);
+        System.out.printf("level reached 1=%d 2=%d 3=%d cleared=%d (%.1f%%)%n",
+            levels[1], levels[2], levels[3], cleared, 100.0 * cleared / Math.max(1, n));
+    }
+
+    private static float percentile(float[] sorted, float p) {
+        if (sorted.length == 0) return 0f;
+        int idx = Math.min(sorted.length - 1, (int) (p * sorted.length));
+        return sorted[idx];
+    }
+}
@@ -0,0 +1,345 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class SimulationLoop implements GameWorld.Listener, Runnable {
+
+    public static final int EVENT_NONE = 0;
+    public static final int EVENT_CRASH = 1;
+    public static final int EVENT_LEVEL_CHANGED = 2;
+    public static final int EVENT_LEVEL_CLEARED = 3;
+    public static final int EVENT_GAME_OVER = 4;
+    public static final int EVENT_ORIGIN_SHIFT = 5;
+    public static final int EVENT_RESET = 6;
+    public static final int EVENT_COMMAND = 7;
+
+    private static final float STEP = GameWorld.STEP;
+    private static final int MAX_STEPS_PER_UPDATE = 8;
+    private static final long IDLE_NANOS = 4_000_000L;
+    private static final int COMMAND_CAPACITY = 64;
+    private static final int EVENT_CAPACITY = 64;
+    private static final int FRESH = 4;
+    private static final int INDEX = 3;
+
+    private final GameWorld world;
+    private final Replay recording;
+    private final FileHandle recordingFile;
+    private final Replay.Player playback;
+    private final GhostRecorder ghostRecorder;
+    private final SaveStore saves;
+
+    private final WorldSnapshot[] buffers = {new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+    private final AtomicInteger ready = new AtomicInteger(0);
+    private int back = 1;
+    private int front = 2;
+
+    private final byte[] commands = new byte[COMMAND_CAPACITY];
+    private final long[] commandTimes = new long[COMMAND_CAPACITY];
+    private volatile int commandHead = 0;
+    private volatile int commandTail = 0;
+
+    private final int[] eventTypes = new int[EVENT_CAPACITY];
+    private final int[] eventSequences = new int[EVENT_CAPACITY];
+    private final float[] eventX = new float[EVENT_CAPACITY];
+    private final float[] eventY = new float[EVENT_CAPACITY];
+    private final long[] eventTimes = new long[EVENT_CAPACITY];
+    private volatile int eventHead = 0;
+    private volatile int eventTail = 0;
+    private float polledX, polledY;
+    private long polledTime;
+
+    private volatile LevelData pendingLevels;
+    private volatile boolean paused = false;
+    private volatile int playbackSpeed = 1;
+    private volatile float viewLead = 300f;
+    private volatile float viewWidth = 1280f;
+    private volatile float chunkWidth = 1024f;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    private float accumulator = 0f;
+    private long lastNanos;
+    private boolean ghostRecording = false;
+    private boolean saveRequested = false;
+    private boolean levelsReloaded = false;
+    private int attempt = 0;
+    private int attemptJumps = 0;
+    private int attemptCrashes = 0;
+    private boolean attemptCleared = false;
+    private Terrain shownTerrain;
+    private double shownOriginX;
+    private int groundVersion = 0;
+    private int sequence = 0;
+
+    public SimulationLoop(GameWorld world, Replay recording, FileHandle recordingFile, Replay.Player playback,
+                          GhostRecorder ghostRecorder, SaveStore saves) {
+        this.world = world;
+        this.recording = recording;
+        this.recordingFile = recordingFile;
+        this.playback = playback;
+        this.ghostRecorder = ghostRecorder;
+        this.saves = saves;
+        world.setListener(this);
+        if (ghostRecorder != null) startAttempt();
+        publish(System.nanoTime());
+    }
+
+    public void setView(float lead, float width, float groundChunkWidth) {
+        viewLead = lead;
+        viewWidth = width;
+        chunkWidth = groundChunkWidth;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        lastNanos = System.nanoTime();
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    public boolean isThreaded() { return running; }
+
+    @Override
+    public void run() {
+        while (running) {
+            long now = System.nanoTime();
+            update((now - lastNanos) * 1e-9f, now);
+            lastNanos = now;
+            boolean idle = paused || world.isGameOver() || isPlaybackFinished();
+            long wait = idle ? IDLE_NANOS : (long) ((STEP - accumulator) / playbackSpeed * 1e9f);
+            if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    public void update(float delta) {
+        update(delta, System.nanoTime());
+    }
+
+    private void update(float delta, long now) {
+        LevelData levels = pendingLevels;
+        if (levels != null) {
+            pendingLevels = null;
+            world.setLevelData(levels);
+            levelsReloaded = true;
+        }
+        if (paused || world.isGameOver() || isPlaybackFinished()) applyCommands(Long.MAX_VALUE);
+        if (playback != null && !paused) applyPlayback();
+        if (!paused && !world.isGameOver() && !isPlaybackFinished()) stepSimulation(delta, now);
+        if (saveRequested) {
+            saveRecording();
+            finishAttempt();
+        }
+        publish(now);
+    }
+
+    private void stepSimulation(float delta, long now) {
+        int speed = playbackSpeed;
+        accumulator += Math.min(delta, STEP * MAX_STEPS_PER_UPDATE) * speed;
+        int maxSteps = MAX_STEPS_PER_UPDATE * speed;
+        int steps = 0;
+        while (accumulator >= STEP && steps < maxSteps) {
+            applyCommands(now - (long) ((accumulator - STEP) / speed * 1e9f));
+            if (accumulator < STEP) break;
+            if (playback != null) applyPlayback();
+            world.step(STEP);
+            if (ghostRecording) ghostRecorder.step(world);
+            accumulator -= STEP;
+            steps++;
+            if (world.isGameOver()) {
+                accumulator = 0f;
+                break;
+            }
+        }
+    }
+
+    private void publish(long now) {
+        Runner runner = world.runner;
+        float lead = viewLead, half = viewWidth / 2, chunk = chunkWidth;
+        float left = Math.min(runner.prevPos.x, runner.pos.x) + lead - half;
+        float right = Math.max(runner.prevPos.x, runner.pos.x) + lead + half;
+        if (world.getTerrain() != shownTerrain || world.getOriginX() != shownOriginX) {
+            shownTerrain = world.getTerrain();
+            shownOriginX = world.getOriginX();
+            groundVersion++;
+        }
+
+        WorldSnapshot s = buffers[back];
+        s.sequence = ++sequence;
+        s.capture(world, left, right, (float) Math.floor(left / chunk) * chunk, ((float) Math.floor(right / chunk) + 1) * chunk);
+        s.groundVersion = groundVersion;
+        s.publishNanos = now;
+        s.accumulator = accumulator;
+        s.speed = playbackSpeed;
+        s.advancing = !paused && !world.isGameOver() && !isPlaybackFinished();
+        s.attempt = attempt;
+        s.ghostRecording = ghostRecording;
+        s.ghostTick = ghostRecorder != null ? ghostRecorder.getTick() : 0;
+        s.playbackFinished = isPlaybackFinished();
+        s.playbackMatches = s.playbackFinished && playback.getReplay().matches(world);
+        back = ready.getAndSet(back | FRESH) & INDEX;
+    }
+
+    public WorldSnapshot acquire() {
+        if ((ready.get() & FRESH) != 0) front = ready.getAndSet(front) & INDEX;
+        return buffers[front];
+    }
+
+    public void post(byte command, long time) {
+        int tail = commandTail;
+        if (tail - commandHead == COMMAND_CAPACITY) return;
+        int i = tail & (COMMAND_CAPACITY - 1);
+        commands[i] = command;
+        commandTimes[i] = time;
+        commandTail = tail + 1;
+    }
+
+    private void applyCommands(long before) {
+        for (int head = commandHead; head != commandTail; head++) {
+            int i = head & (COMMAND_CAPACITY - 1);
+            if (commandTimes[i] >= before) return;
+            commandHead = head + 1;
+            command(commands[i], commandTimes[i]);
+        }
+    }
+
+    private void command(byte command, long time) {
+        if (recording != null) recording.record(world.getTick(), command);
+        if (recording != null && command == Replay.JUMP) attemptJumps++;
+        Replay.apply(world, command);
+        if (command == Replay.RESET) {
+            accumulator = 0f;
+            if (ghostRecorder != null) startAttempt();
+            event(EVENT_RESET, 0f, 0f, 0L);
+        }
+        if (time != 0L) event(EVENT_COMMAND, command, 0f, time);
+    }
+
+    private void applyPlayback() {
+        for (byte c; (c = playback.poll(world.getTick())) != 0; ) command(c, 0L);
+    }
+
+    private boolean isPlaybackFinished() {
+        return playback != null && playback.isFinished(world.getTick());
+    }
+
+    private void startAttempt() {
+        ghostRecorder.start(world);
+        ghostRecording = true;
+        attempt++;
+        attemptJumps = 0;
+        attemptCrashes = 0;
+        attemptCleared = false;
+    }
+
+    public void finish() {
+        if (recording == null || world.getTick() == 0) return;
+        saveRecording();
+        finishAttempt();
+        publish(System.nanoTime());
+    }
+
+    private void finishAttempt() {
+        if (!ghostRecording) return;
+        ghostRecording = false;
+        saves.putMax(world.isEndless() ? SaveStore.BEST_ENDLESS : SaveStore.BEST_CAMPAIGN, world.getDistance());
+        saves.add(SaveStore.RUNS, 1);
+        saves.add(SaveStore.JUMPS, attemptJumps);
+        saves.add(SaveStore.CRASHES, attemptCrashes);
+        saves.add(SaveStore.TOTAL_DISTANCE, world.getDistance());
+        if (attemptCleared) saves.add(SaveStore.CLEARS, 1);
+    }
+
+    private void saveRecording() {
+        saveRequested = false;
+        if (recording == null || levelsReloaded) return;
+        recording.finish(world);
+        saves.write(recordingFile, recording.toBytes());
+        saves.execute(Replay::prune);
+    }
+
+    private void event(int type, float x, float y, long time) {
+        int tail = eventTail;
+        if (tail - eventHead == EVENT_CAPACITY) return;
+        int i = tail & (EVENT_CAPACITY - 1);
+        eventTypes[i] = type;
+        eventSequences[i] = sequence + 1;
+        eventX[i] = x;
+        eventY[i] = y;
+        eventTimes[i] = time;
+        eventTail = tail + 1;
+    }
+
+    public int pollEvent(int maxSequence) {
+        int head = eventHead;
+        if (head == eventTail) return EVENT_NONE;
+        int i = head & (EVENT_CAPACITY - 1);
+        if (eventSequences[i] > maxSequence) return EVENT_NONE;
+        polledX = eventX[i];
+        polledY = eventY[i];
+        polledTime = eventTimes[i];
+        int type = eventTypes[i];
+        eventHead = head + 1;
+        return type;
+    }
+
+    public float getEventX() { return polledX; }
+    public float getEventY() { return polledY; }
+    public long getEventTime() { return polledTime; }
+
+    @Override
+    public void onCrash() {
+        attemptCrashes++;
+        event(EVENT_CRASH, world.runner.pos.x, world.runner.pos.y, 0L);
+    }
+
+    @Override
+    public void onLevelChanged(int level) {
+        event(EVENT_LEVEL_CHANGED, level, 0f, 0L);
+    }
+
+    @Override
+    public void onLevelCleared() {
+        paused = false;
+        attemptCleared = true;
+        saveRequested = true;
+        event(EVENT_LEVEL_CLEARED, 0f, 0f, 0L);
+    }
+
+    @Override
+    public void onGameOver() {
+        saveRequested = true;
+        event(EVENT_GAME_OVER, 0f, 0f, 0L);
+    }
+
+    @Override
+    public void onOriginShift(float dx) {
+        event(EVENT_ORIGIN_SHIFT, dx, 0f, 0L);
+    }
+
+    public void setLevelData(LevelData levels) { pendingLevels = levels; }
+    public void setPaused(boolean paused) { this.paused = paused; }
+    public void setPlaybackSpeed(int speed) { playbackSpeed = speed; }
+    public GhostRecorder getGhostRecorder() { return ghostRecorder; }
+}
@@ -0,0 +1,110 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+public class SpawnSystem {
+
+    private static final float STREAM_AHEAD = 640f + EndlessTerrain.CHUNK_WIDTH;
+    private static final float MIN_OBSTACLE_SEPARATION = 500f;
+    private static final long OBSTACLE_SALT = 0x2545F4914F6CDD1DL;
+    private static final float FIRST_INTERVAL = 1.5f;
+
+    private long seed;
+    private final RandomXS128 random;
+    private final RandomXS128 chunkRandom = new RandomXS128(1L);
+
+    private float spawnTimer = 0f;
+    private float spawnInterval = FIRST_INTERVAL;
+    private float lastObstacleX = 0f;
+    private long nextChunk = 0;
+    private double lastObstacleU = Double.NEGATIVE_INFINITY;
+
+    public SpawnSystem(long seed) {
+        this.seed = seed;
+        this.random = new RandomXS128(seed);
+    }
+
+    public void reseed(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        spawnTimer = 0f;
+        spawnInterval = FIRST_INTERVAL;
+        lastObstacleX = 0f;
+        nextChunk = 0;
+        lastObstacleU = Double.NEGATIVE_INFINITY;
+    }
+
+    public void begin(GameWorld world) {
+        if (world.isEndless()) stream(world);
+        else spawn(world);
+    }
+
+    public void update(GameWorld world, float delta) {
+        if (world.isEndless()) {
+            stream(world);
+            return;
+        }
+        spawnTimer += delta;
+        if (spawnTimer >= spawnInterval) {
+            spawn(world);
+            LevelData levels = world.getLevelData();
+            spawnInterval = randomRange(levels.getIntervalMin(), levels.getIntervalMax());
+            spawnTimer = 0f;
+        }
+    }
+
+    public void reset(GameWorld world) {
+        spawnTimer = 0f;
+        lastObstacleX = 0f;
+        nextChunk = 0;
+        lastObstacleU = Double.NEGATIVE_INFINITY;
+        if (!world.isEndless()) {
+            LevelData levels = world.getLevelData();
+            spawnInterval = randomRange(levels.getFirstIntervalMin(), levels.getFirstIntervalMax());
+        }
+        begin(world);
+    }
+
+    private void stream(GameWorld world) {
+        float w = EndlessTerrain.CHUNK_WIDTH;
+        while (nextChunk * (double) w - world.getTravel() - world.getOriginX() < world.getCamX() + STREAM_AHEAD) {
+            spawnChunk(world, nextChunk++);
+        }
+    }
+
+    private void spawnChunk(GameWorld world, long chunk) {
+        if (chunk == 0) return;
+        float w = EndlessTerrain.CHUNK_WIDTH;
+        chunkRandom.setSeed(EndlessTerrain.mix(seed ^ OBSTACLE_SALT, chunk));
+        float difficulty = MathUtils.clamp(chunk / 16f, 0f, 1f);
+        float minGap = MathUtils.lerp(1000f, 550f, difficulty);
+        float maxGap = MathUtils.lerp(1600f, 900f, difficulty);
+        double start = chunk * (double) w;
+        double u = start + chunkRandom.nextFloat() * minGap;
+        while (u < start + w) {
+            u = Math.max(u, lastObstacleU + MIN_OBSTACLE_SEPARATION);
+            world.obstacles.add((float) (u - world.getTravel() - world.getOriginX()), 64, 64, chunkRandom.nextInt(GameWorld.OBSTACLE_TYPES));
+            lastObstacleU = u;
+            u += minGap + chunkRandom.nextFloat() * (maxGap - minGap);
+        }
+    }
+
+    private void spawn(GameWorld world) {
+        LevelData levels = world.getLevelData();
+        float runnerX = world.runner.getX();
+        float difficulty = MathUtils.clamp(runnerX / levels.getRampDistance(), 0f, 1f);
+        float minGap = MathUtils.lerp(levels.getMinGapStart(), levels.getMinGapEnd(), difficulty);
+        float maxGap = MathUtils.lerp(levels.getMaxGapStart(), levels.getMaxGapEnd(), difficulty);
+        float gap = randomRange(minGap, maxGap);
+        float x = Math.max(runnerX + levels.getSpawnAhead(), lastObstacleX + gap);
+        float w = 64, h = 64;
+        int type = random.nextInt(GameWorld.OBSTACLE_TYPES);
+        world.obstacles.add(x, w, h, type);
+        lastObstacleX = x;
+    }
+
+    private float randomRange(float start, float end) {
+        return start + random.nextFloat() * (end - start);
+    }
+}
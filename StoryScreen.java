@@ -1,6 +1,5 @@
 package io.nom.jbnu;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.OrthographicCamera;
@@ -9,6 +8,7 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.audio.Music;
 
 
@@ -19,9 +19,12 @@ public class StoryScreen implements Screen {
     private Music storyMusic;
 
     private final OrthographicCamera cam;
+    private final FitViewport viewport;
     private final ShapeRenderer shapeRenderer;
     private final BitmapFont font;
-    private final Texture runnerTexture;
+    private Texture runnerTexture;
+    private GameScreen next;
+    private boolean starting = false;
 
     private final String[] storyLines = {
         "He runs.",
@@ -43,21 +46,28 @@ public class StoryScreen implements Screen {
         this.game = game;
         this.batch = game.batch;
         this.cam = new OrthographicCamera(1280, 720);
+        this.viewport = new FitViewport(1280, 720, cam);
         this.shapeRenderer = new ShapeRenderer();
         this.font = new BitmapFont();
-        this.runnerTexture = new Texture(Gdx.files.internal("runner_stand.png"));
+        game.assets.acquire(Assets.Group.STORY);
         cam.position.set(640, 360, 0);
     }
 
+    public boolean isReady() {
+        return game.assets.isLoaded(Assets.Group.STORY);
+    }
+
     @Override
     public void show() {
         charsVisible = 0;
         lineFinished = false;
         currentLine = 0;
-        storyMusic = Gdx.audio.newMusic(Gdx.files.internal("story.mp3"));
+        runnerTexture = game.assets.get("runner_stand.png", Texture.class);
+        storyMusic = game.assets.get("story.mp3", Music.class);
         storyMusic.setLooping(true);
         storyMusic.setVolume(0.4f);
         storyMusic.play();
+        if (next == null) next = new GameScreen(game);
     }
 
     @Override
@@ -65,15 +75,19 @@ public class StoryScreen implements Screen {
         ScreenUtils.clear(0.7f, 0.85f, 1f, 1f);
         cam.update();
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
+        if (starting && next.isReady()) {
+            storyMusic.stop();
+            game.setScreen(next);
+            dispose();
+            return;
+        }
+
+        if (!starting && game.input.isJustPressed(Input.Keys.SPACE)) {
             if (lineFinished) {
-                currentLine++;
-                if (currentLine >= storyLines.length) {
-                    storyMusic.stop();
-                    game.setScreen(new GameScreen(game));
-                    dispose();
-                    return;
+                if (currentLine + 1 >= storyLines.length) {
+                    starting = true;
                 } else {
+                    currentLine++;
                     charsVisible = 0;
                     lineFinished = false;
                 }
@@ -110,7 +124,10 @@ public class StoryScreen implements Screen {
         String visibleText = storyLines[currentLine].substring(0, Math.min(charsVisible, storyLines[currentLine].length()));
         font.draw(batch, visibleText, 330, 400);
 
-        if (lineFinished) {
+        if (starting) {
+            font.getData().setScale(1f);
+            font.draw(batch, "Loading...", 570, 350);
+        } else if (lineFinished) {
             font.getData().setScale(1f);
             font.draw(batch, "Press SPACE", 550, 350);
         }
@@ -118,15 +135,18 @@ public class StoryScreen implements Screen {
         batch.end();
     }
 
-    @Override public void resize(int width, int height) {}
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height);
+    }
     @Override public void pause() {}
     @Override public void resume() {}
     @Override public void hide() {}
 
     @Override
     public void dispose() {
-        runnerTexture.dispose();
         shapeRenderer.dispose();
+        game.assets.release(Assets.Group.STORY);
         font.dispose();
     }
 }
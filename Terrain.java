@@ -0,0 +1,10 @@
+package io.nom.jbnu;
+
+public interface Terrain {
+
+    float height(float x);
+
+    float getSpacing();
+
+    float getOriginX();
+}
@@ -0,0 +1,142 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class VectorEnv {
+
+    private static final String LEVELS_PATH = "assets/" + LevelLoader.CAMPAIGN;
+
+    public final float[] observations;
+    public final float[] rewards;
+    public final boolean[] dones;
+    public final float[] finalReturns;
+    public final float[] finalDistances;
+
+    private final RunnerEnv[] envs;
+    private final long[] episodes;
+    private final long baseSeed;
+    private final ForkJoinPool pool;
+    private final int grain;
+    private int[] actions;
+
+    public VectorEnv(LevelData levels, int count, long baseSeed, boolean endless, int frameSkip, float maxSeconds, ForkJoinPool pool) {
+        this.envs = new RunnerEnv[count];
+        for (int i = 0; i < count; i++) envs[i] = new RunnerEnv(levels, endless, frameSkip, maxSeconds);
+        this.observations = new float[count * RunnerEnv.OBSERVATION_SIZE];
+        this.rewards = new float[count];
+        this.dones = new boolean[count];
+        this.finalReturns = new float[count];
+        this.finalDistances = new float[count];
+        this.episodes = new long[count];
+        this.baseSeed = baseSeed;
+        this.pool = pool;
+        this.grain = Math.max(1, count / (pool.getParallelism() * 4));
+    }
+
+    public void reset() {
+        actions = null;
+        pool.invoke(new Batch(0, envs.length));
+    }
+
+    public void step(int[] actions) {
+        this.actions = actions;
+        pool.invoke(new Batch(0, envs.length));
+    }
+
+    private void run(int i) {
+        RunnerEnv env = envs[i];
+        if (actions == null) {
+            env.reset(nextSeed(i));
+            rewards[i] = 0f;
+            dones[i] = false;
+        } else {
+            rewards[i] = env.step(actions[i]);
+            dones[i] = env.isDone();
+            if (dones[i]) {
+                finalReturns[i] = env.getEpisodeReturn();
+                finalDistances[i] = env.getWorld().getDistance();
+                env.reset(nextSeed(i));
+            }
+        }
+        env.observe(observations, i * RunnerEnv.OBSERVATION_SIZE);
+    }
+
+    private long nextSeed(int i) {
+        return baseSeed + episodes[i]++ * envs.length + i;
+    }
+
+    private class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+
+        Batch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) run(i);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(from, mid), new Batch(mid, to));
+        }
+    }
+
+    public int size() { return envs.length; }
+    public RunnerEnv get(int i) { return envs[i]; }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        String policy = args.length > 3 ? args[3] : "lookahead";
+        boolean endless = args.length > 4 && args[4].equals("endless");
+        int frameSkip = 4;
+
+        LevelData levels = LevelLoader.loadFile(LEVELS_PATH);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        VectorEnv env = new VectorEnv(levels, count, 1L, endless, frameSkip, 600f, pool);
+        int[] actions = new int[count];
+        RandomXS128 random = new RandomXS128(7L);
+        int obs = RunnerEnv.OBSERVATION_SIZE;
+
+        env.reset();
+        int episodes = 0;
+        double returns = 0, distances = 0;
+        long start = System.nanoTime();
+        for (int t = 0; t < steps; t++) {
+            for (int i = 0; i < count; i++) {
+                if (policy.equals("random")) {
+                    actions[i] = random.nextFloat() < 0.05f ? RunnerEnv.ACTION_JUMP : RunnerEnv.ACTION_NONE;
+                } else {
+                    int o = i * obs;
+                    boolean grounded = env.observations[o + 2] == 0f && env.observations[o + 3] == 0f;
+                    actions[i] = grounded && env.observations[o + 6] < 0.06f ? RunnerEnv.ACTION_JUMP : RunnerEnv.ACTION_NONE;
+                }
+            }
+            env.step(actions);
+            for (int i = 0; i < count; i++) {
+                if (!env.dones[i]) continue;
+                episodes++;
+                returns += env.finalReturns[i];
+                distances += env.finalDistances[i];
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        long envSteps = (long) count * steps;
+        System.out.printf("envs=%d steps=%d threads=%d policy=%s endless=%b frameSkip=%d%n",
+            count, steps, threads, policy, endless, frameSkip);
+        System.out.printf("time=%.2fs %.0f env steps/s (%.0f world ticks/s)%n",
+            seconds, envSteps / seconds, envSteps * frameSkip / seconds);
+        System.out.printf("episodes=%d mean return=%.1f mean distance=%.0f%n",
+            episodes, returns / Math.max(1, episodes), distances / Math.max(1, episodes));
+    }
+}
@@ -0,0 +1,139 @@
+package io.nom.jbnu;
+
+import java.util.Arrays;
+
+public class WorldSnapshot {
+
+    public static class Ground implements Terrain {
+        private float originX;
+        private float spacing;
+        private float invSpacing;
+        private int first;
+        private int count;
+        private float[] samples = new float[0];
+
+        void capture(GameWorld world, float left, float right) {
+            Terrain terrain = world.getTerrain();
+            originX = terrain.getOriginX();
+            spacing = terrain.getSpacing();
+            invSpacing = 1f / spacing;
+            first = (int) Math.floor((left - originX) * invSpacing);
+            count = (int) Math.ceil((right - originX) * invSpacing) - first + 1;
+            if (samples.length < count) samples = new float[count + count / 2];
+            for (int i = 0; i < count; i++) samples[i] = terrain.height(originX + (first + i) * spacing);
+        }
+
+        @Override
+        public float height(float x) {
+            float f = (x - originX) * invSpacing - first;
+            if (f <= 0f) return samples[0];
+            if (f >= count - 1) return samples[count - 1];
+            int i = (int) f;
+            float a = samples[i];
+            return a + (samples[i + 1] - a) * (f - i);
+        }
+
+        @Override public float getSpacing() { return spacing; }
+        @Override public float getOriginX() { return originX; }
+    }
+
+    public int sequence;
+    public int tick;
+    public long publishNanos;
+    public float accumulator;
+    public boolean advancing;
+    public int speed;
+
+    public float runnerPrevX, runnerPrevY, runnerX, runnerY;
+    public Runner.State runnerState = Runner.State.RUN;
+    public int lives;
+
+    public LevelData levels;
+    public int level;
+    public boolean endless;
+    public boolean gameOver;
+    public boolean levelCleared;
+    public float distance;
+    public double originX;
+    public float camX;
+    public float nextLevelX;
+    public int nextLevel;
+    public float baseGroundY;
+
+    public int attempt;
+    public boolean ghostRecording;
+    public int ghostTick;
+    public boolean playbackFinished;
+    public boolean playbackMatches;
+
+    public final Ground ground = new Ground();
+    public int groundVersion;
+
+    public int obstacleCount;
+    public float[] obstaclePrevX = new float[32];
+    public float[] obstacleX = new float[32];
+    public float[] obstacleW = new float[32];
+    public float[] obstacleH = new float[32];
+    public int[] obstacleType = new int[32];
+
+    void capture(GameWorld world, float left, float right, float groundLeft, float groundRight) {
+        Runner runner = world.runner;
+        tick = world.getTick();
+        runnerPrevX = runner.prevPos.x;
+        runnerPrevY = runner.prevPos.y;
+        runnerX = runner.pos.x;
+        runnerY = runner.pos.y;
+        runnerState = runner.getState();
+        lives = runner.getLives();
+        levels = world.getLevelData();
+        level = world.getLevel();
+        endless = world.isEndless();
+        gameOver = world.isGameOver();
+        levelCleared = world.isLevelCleared();
+        distance = world.getDistance();
+        originX = world.getOriginX();
+        camX = world.getCamX();
+        nextLevelX = world.getNextLevelX();
+        nextLevel = world.getNextLevel();
+        baseGroundY = world.getBaseGroundY();
+        ground.capture(world, groundLeft, groundRight);
+        captureObstacles(world.obstacles, left, right);
+    }
+
+    private void captureObstacles(ObstacleStore obstacles, float left, float right) {
+        int n = 0;
+        for (int i = obstacles.lowerBound(left - obstacles.getMaxWidth(), 0f); i < obstacles.size(); i++) {
+            int s = obstacles.slot(i);
+            float prevX = obstacles.interpolatedX(s, 0f);
+            float x = obstacles.x(s);
+            if (Math.min(prevX, x) >= right) break;
+            if (n == obstacleX.length) growObstacles();
+            obstaclePrevX[n] = prevX;
+            obstacleX[n] = x;
+            obstacleW[n] = obstacles.w[s];
+            obstacleH[n] = obstacles.h[s];
+            obstacleType[n] = obstacles.type[s];
+            n++;
+        }
+        obstacleCount = n;
+    }
+
+    private void growObstacles() {
+        int cap = obstacleX.length * 2;
+        obstaclePrevX = Arrays.copyOf(obstaclePrevX, cap);
+        obstacleX = Arrays.copyOf(obstacleX, cap);
+        obstacleW = Arrays.copyOf(obstacleW, cap);
+        obstacleH = Arrays.copyOf(obstacleH, cap);
+        obstacleType = Arrays.copyOf(obstacleType, cap);
+    }
+
+    public float alpha(long now, float step) {
+        float elapsed = advancing ? (now - publishNanos) * 1e-9f * speed : 0f;
+        return Math.min(1f, Math.max(0f, (accumulator + elapsed) / step));
+    }
+
+    public float interpolatedRunnerX(float alpha) { return runnerPrevX + (runnerX - runnerPrevX) * alpha; }
+    public float interpolatedRunnerY(float alpha) { return runnerPrevY + (runnerY - runnerPrevY) * alpha; }
+    public float obstacleX(int i, float alpha) { return obstaclePrevX[i] + (obstacleX[i] - obstaclePrevX[i]) * alpha; }
+    public float obstacleY(float x) { return ground.height(x) - 4f; }
+}
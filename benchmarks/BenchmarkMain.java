@@ -0,0 +1,17 @@
+package io.nom.jbnu;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : "io\\.nom\\.jbnu\\..*Benchmark";
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new org.openjdk.jmh.runner.Runner(options).run();
+    }
+}
@@ -0,0 +1,65 @@
+package io.nom.jbnu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadphaseBenchmark {
+
+    private static final float SPACING = 350f;
+    private static final float VIEW_WIDTH = 1280f;
+
+    @Param({"64", "512", "4096", "32768"})
+    public int obstacleCount;
+
+    private ObstacleStore obstacles;
+    private float span;
+    private float left;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        obstacles = new ObstacleStore(obstacleCount);
+        for (int i = 0; i < obstacleCount; i++) {
+            obstacles.add(i * SPACING, 64f, 64f, i % GameWorld.OBSTACLE_TYPES);
+        }
+        span = obstacleCount * SPACING - VIEW_WIDTH;
+        left = 0f;
+    }
+
+    private float nextLeft() {
+        left += 97f;
+        if (left > span) left = 0f;
+        return left;
+    }
+
+    @Benchmark
+    public int visible() {
+        float l = nextLeft();
+        float r = l + VIEW_WIDTH;
+        int n = 0;
+        for (int i = obstacles.lowerBound(l - obstacles.getMaxWidth()); i < obstacles.size(); i++) {
+            if (obstacles.x(obstacles.slot(i)) >= r) break;
+            n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int visibleLinear() {
+        float l = nextLeft();
+        float r = l + VIEW_WIDTH;
+        float maxW = obstacles.getMaxWidth();
+        int n = 0;
+        for (int i = 0; i < obstacles.size(); i++) {
+            float x = obstacles.x(obstacles.slot(i));
+            if (x >= l - maxW && x < r) n++;
+        }
+        return n;
+    }
+}
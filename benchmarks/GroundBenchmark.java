@@ -0,0 +1,59 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroundBenchmark {
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long vertices;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            vertices = 0;
+        }
+    }
+
+    @Param({"1", "2", "3"})
+    public int level;
+
+    private GroundMesh mesh;
+    private float[] scratch;
+    private float camX;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameWorld world = new GameWorld(42L, LevelLoader.loadFile("assets/" + LevelLoader.CAMPAIGN));
+        world.setLevel(level);
+        mesh = new GroundMesh(new TextureRegion(), 1024f, Color.BLACK);
+        mesh.setTerrain(world.getTerrain());
+        scratch = new float[1024];
+    }
+
+    @Benchmark
+    public int drawGround(Counters counters) {
+        camX += 2.5f;
+        if (camX > 16000f) camX = 0f;
+        int emitted = mesh.visibleVertexCount(camX - 640f, camX + 640f);
+        counters.vertices += emitted;
+        return emitted;
+    }
+
+    @Benchmark
+    public int buildChunk() {
+        camX += 1024f;
+        if (camX > 16000f) camX = 0f;
+        return mesh.build((int) (camX / 1024f), scratch);
+    }
+}
@@ -0,0 +1,40 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleBenchmark {
+
+    @Param({"10000", "100000"})
+    public int particleCount;
+
+    private ParticleSystem particles;
+    private TextureRegion region;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        particles = new ParticleSystem(particleCount);
+        particles.emit(ParticleSystem.CONFETTI, 640f, 360f, particleCount);
+        for (int i = 0; i < particleCount; i++) particles.life[i] = Float.MAX_VALUE;
+        region = new TextureRegion();
+    }
+
+    @Benchmark
+    public int update() {
+        particles.update(1f / 60f);
+        return particles.size();
+    }
+
+    @Benchmark
+    public int buildVertices() {
+        return particles.buildVertices(region);
+    }
+}
@@ -0,0 +1,30 @@
+package io.nom.jbnu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunnerBenchmark {
+
+    private Runner runner;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        runner = new Runner();
+    }
+
+    @Benchmark
+    public float update() {
+        if ((++tick & 127) == 0) runner.jump();
+        runner.update(GameWorld.STEP, 100f);
+        if (runner.getX() > 100000f) runner.reset();
+        return runner.pos.y;
+    }
+}
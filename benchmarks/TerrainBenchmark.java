@@ -0,0 +1,37 @@
+package io.nom.jbnu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"1", "2", "3"})
+    public int level;
+
+    private GameWorld world;
+    private final float[] xs = new float[SAMPLES];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new GameWorld(42L, LevelLoader.loadFile("assets/" + LevelLoader.CAMPAIGN));
+        world.setLevel(level);
+        for (int i = 0; i < SAMPLES; i++) xs[i] = i * (16000f / SAMPLES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float groundHeight() {
+        float sum = 0f;
+        for (int i = 0; i < SAMPLES; i++) sum += world.getGroundHeight(xs[i]);
+        return sum;
+    }
+}
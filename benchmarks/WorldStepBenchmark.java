@@ -0,0 +1,56 @@
+package io.nom.jbnu;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldStepBenchmark {
+
+    private static final int TICKS_PER_RUN = 1200;
+
+    @Param({"8", "64", "512", "4096"})
+    public int obstacleCount;
+
+    @Param({"1", "3"})
+    public int level;
+
+    private GameWorld world;
+    private float nextX;
+    private int ticks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new GameWorld(42L, LevelLoader.loadFile("assets/" + LevelLoader.CAMPAIGN));
+        restart();
+    }
+
+    private void restart() {
+        world.reset();
+        world.setLevel(level);
+        nextX = world.runner.getX() + 400;
+        ticks = 0;
+        topUp();
+    }
+
+    private void topUp() {
+        ObstacleStore obstacles = world.obstacles;
+        while (obstacles.size() < obstacleCount) {
+            obstacles.add(nextX, 64f, 64f, obstacles.size() % GameWorld.OBSTACLE_TYPES);
+            nextX += 350f;
+        }
+    }
+
+    @Benchmark
+    public int step() {
+        if (++ticks == TICKS_PER_RUN) restart();
+        world.step(GameWorld.STEP);
+        topUp();
+        return world.obstacles.size();
+    }
+}
@@ -0,0 +1,53 @@
+package io.nom.jbnu;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class AtlasPacker {
+
+    private static final String FONT_PAGE = "com/badlogic/gdx/utils/lsans-15.png";
+
+    public static void main(String[] args) throws IOException {
+        File input = new File(args.length > 0 ? args[0] : "assets-raw/game");
+        String output = args.length > 1 ? args[1] : "assets";
+        Path staging = Files.createTempDirectory("nom-atlas");
+
+        File[] images = input.listFiles((dir, name) -> name.endsWith(".png"));
+        if (images == null) throw new IOException("No input directory: " + input);
+        for (File image : images)
+            Files.copy(image.toPath(), staging.resolve(image.getName()), StandardCopyOption.REPLACE_EXISTING);
+
+        BufferedImage pixel = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 4; y++)
+            for (int x = 0; x < 4; x++) pixel.setRGB(x, y, 0xFFFFFFFF);
+        ImageIO.write(pixel, "png", staging.resolve(GameSprites.PIXEL + ".png").toFile());
+
+        try (InputStream font = AtlasPacker.class.getClassLoader().getResourceAsStream(FONT_PAGE)) {
+            if (font == null) throw new IOException("Missing font page on classpath: " + FONT_PAGE);
+            Files.copy(font, staging.resolve(GameSprites.FONT + ".png"), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = 2048;
+        settings.maxHeight = 2048;
+        settings.paddingX = 2;
+        settings.paddingY = 2;
+        settings.edgePadding = true;
+        settings.duplicatePadding = true;
+        settings.rotation = false;
+        settings.stripWhitespaceX = false;
+        settings.stripWhitespaceY = false;
+        settings.filterMin = Texture.TextureFilter.Nearest;
+        settings.filterMag = Texture.TextureFilter.Nearest;
+        TexturePacker.process(settings, staging.toString(), output, "game");
+    }
+}